@@ -0,0 +1,55 @@
+package com.learnreactiveprogramming.benchmark;
+
+import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.service.MovieInfoService;
+import com.learnreactiveprogramming.util.BlockingScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+// time to finish N simultaneous one second lookups, run on Java 21 with -PjavaToolchain=21 to get real virtual threads
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class BlockingOffloadBenchmark {
+
+    @Param({"BOUNDED_ELASTIC", "VIRTUAL_THREADS"})
+    BlockingScheduler blockingScheduler;
+
+    @Param({"100", "1000", "5000"})
+    int simultaneousCalls;
+
+    MovieInfoService movieInfoService;
+    Scheduler scheduler;
+
+    @Setup
+    public void setUp() {
+        movieInfoService = new MovieInfoService(null);
+        scheduler = blockingScheduler.scheduler();
+    }
+
+    @Benchmark
+    public Long retrieveMovieUsingId() {
+        return Flux.range(0, simultaneousCalls)
+                .flatMap(i -> Mono.fromCallable(() -> movieInfoService.retrieveMovieUsingId(100L))
+                        .subscribeOn(scheduler), simultaneousCalls)
+                .map(MovieInfo::getMovieInfoId)
+                .count()
+                .block();
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.learnreactiveprogramming.benchmark;
+
+import com.learnreactiveprogramming.domain.Movie;
+import com.learnreactiveprogramming.service.MovieInfoService;
+import com.learnreactiveprogramming.service.MovieReactiveService;
+import com.learnreactiveprogramming.service.RevenueService;
+import com.learnreactiveprogramming.service.ReviewService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MovieAssemblyBenchmark {
+
+    MovieReactiveService movieReactiveService;
+
+    @Setup
+    public void setUp() {
+        // no WebClient needed, the benchmarks only use the in-memory movie info and review sources
+        movieReactiveService = new MovieReactiveService(new ReviewService(null), new MovieInfoService(null), new RevenueService());
+    }
+
+    @Benchmark
+    public Movie getAllMovies() {
+        return movieReactiveService.getAllMovies()
+                .blockLast();
+    }
+
+    @Benchmark
+    public Movie getMovieById() {
+        return movieReactiveService.getMovieById(100L)
+                .block();
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.learnreactiveprogramming.benchmark;
+
+import com.learnreactiveprogramming.service.FluxAndMonoGeneratorService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class OperatorBenchmark {
+
+    @Param({"10", "1000"})
+    int size;
+
+    Flux<Integer> source;
+    Flux<Integer> other;
+    FluxAndMonoGeneratorService generatorService;
+
+    @Setup
+    public void setUp() {
+        source = Flux.range(0, size);
+        other = Flux.range(size, size);
+        generatorService = new FluxAndMonoGeneratorService();
+    }
+
+    @Benchmark
+    public Integer flatMap() {
+        return source.flatMap(i -> Flux.just(i, i + 1))
+                .blockLast();
+    }
+
+    @Benchmark
+    public Integer concatMap() {
+        return source.concatMap(i -> Flux.just(i, i + 1))
+                .blockLast();
+    }
+
+    @Benchmark
+    public Integer flatMapSequential() {
+        return source.flatMapSequential(i -> Flux.just(i, i + 1))
+                .blockLast();
+    }
+
+    @Benchmark
+    public Integer mergeWith() {
+        return source.mergeWith(other)
+                .blockLast();
+    }
+
+    @Benchmark
+    public Integer mergeSequential() {
+        return Flux.mergeSequential(source, other)
+                .blockLast();
+    }
+
+    @Benchmark
+    public Integer zip() {
+        return Flux.zip(source, other, Integer::sum)
+                .blockLast();
+    }
+
+    @Benchmark
+    public Integer transform() {
+        return source.transform(numbers -> numbers.map(i -> i * 2))
+                .blockLast();
+    }
+
+    @Benchmark
+    public Integer onErrorContinue() {
+        return source.map(i -> {
+                    if (i % 10 == 0) {
+                        throw new IllegalStateException("Wrong number!");
+                    }
+                    return i;
+                })
+                .onErrorContinue((throwable, o) -> {
+                })
+                .blockLast();
+    }
+
+    @Benchmark
+    public String generator_namesFlux_flatMap() {
+        return generatorService.namesFlux_flatMap()
+                .blockLast();
+    }
+
+    @Benchmark
+    public String generator_namesFlux_transform() {
+        return generatorService.namesFlux_transform()
+                .blockLast();
+    }
+
+    @Benchmark
+    public String generator_explore_zip() {
+        return generatorService.explore_zip()
+                .blockLast();
+    }
+
+    @Benchmark
+    public String generator_exception_onErrorContinue() {
+        return generatorService.exception_onErrorContinue()
+                .blockLast(); // includes the error logging done by the service
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.learnreactiveprogramming.benchmark;
+
+import com.learnreactiveprogramming.util.CodePointFlux;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+// compare gc.alloc.rate.norm, the bytes allocated per split
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SplitBenchmark {
+
+    @Param({"Alex", "Christopher Nolan and the Dark Knight trilogy"})
+    String name;
+
+    @Benchmark
+    public Long regexSplit() {
+        return Flux.fromArray(name.split(""))
+                .count()
+                .block();
+    }
+
+    @Benchmark
+    public Long codePointFlux() {
+        return CodePointFlux.of(name)
+                .count()
+                .block();
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.learnreactiveprogramming.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.util.MovieCodecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// decode time of a catalog through the same decoders bodyToFlux uses, the bytes on the wire are printed by the setup
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    private static final ResolvableType MOVIE_INFO = ResolvableType.forClass(MovieInfo.class);
+
+    @Param({"100", "10000"})
+    int catalogSize;
+
+    byte[] json;
+    byte[] smile;
+    Jackson2JsonDecoder jsonDecoder;
+    Jackson2SmileDecoder smileDecoder;
+    DefaultDataBufferFactory bufferFactory;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        List<MovieInfo> catalog = LongStream.range(0, catalogSize)
+                .mapToObj(id -> new MovieInfo(id, "Batman Begins " + id, 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")))
+                .collect(Collectors.toList());
+        json = MovieCodecs.objectMapper().writeValueAsBytes(catalog);
+        smile = MovieCodecs.smileMapper().writeValueAsBytes(catalog);
+        jsonDecoder = new Jackson2JsonDecoder(MovieCodecs.objectMapper());
+        smileDecoder = new Jackson2SmileDecoder(MovieCodecs.smileMapper());
+        bufferFactory = new DefaultDataBufferFactory();
+        System.out.printf("%n%d movie infos: json %d bytes, smile %d bytes (%.0f%%)%n",
+                catalogSize, json.length, smile.length, 100.0 * smile.length / json.length);
+    }
+
+    @Benchmark
+    public Long json() {
+        return decode(jsonDecoder.decode(body(json), MOVIE_INFO, MediaType.APPLICATION_JSON, Collections.emptyMap()));
+    }
+
+    @Benchmark
+    public Long smile() {
+        return decode(smileDecoder.decode(body(smile), MOVIE_INFO, MovieCodecs.APPLICATION_SMILE, Collections.emptyMap()));
+    }
+
+    private Flux<DataBuffer> body(byte[] bytes) {
+        return Flux.just(bytes)
+                .map(bufferFactory::wrap);
+    }
+
+    private static Long decode(Flux<Object> movieInfos) {
+        return movieInfos.count()
+                .block();
+    }
+
+}
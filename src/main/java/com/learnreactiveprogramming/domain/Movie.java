@@ -13,10 +13,23 @@ public class Movie {
     private MovieInfo movie;
     private List<Review> reviewList;
     private Revenue revenue;
+    private ReviewBatch reviewBatch; // columnar alternative to reviewList for rating-heavy workloads
+    private ReviewStats reviewStats; // set instead of reviewList by the stats-only assembly
+    private boolean complete = true; // false when reviews or revenue were left out because they missed their budget
 
     public Movie(MovieInfo movie, List<Review> reviewList) {
         this.movie = movie;
         this.reviewList = reviewList;
     }
 
+    public Movie(MovieInfo movie, ReviewBatch reviewBatch) {
+        this.movie = movie;
+        this.reviewBatch = reviewBatch;
+    }
+
+    public Movie(MovieInfo movie, ReviewStats reviewStats) {
+        this.movie = movie;
+        this.reviewStats = reviewStats;
+    }
+
 }
\ No newline at end of file
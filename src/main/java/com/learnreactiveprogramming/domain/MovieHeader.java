@@ -0,0 +1,17 @@
+package com.learnreactiveprogramming.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieHeader implements MovieStreamEvent {
+    private MovieInfo movie;
+
+    @Override
+    public Long getMovieInfoId() {
+        return movie.getMovieInfoId();
+    }
+}
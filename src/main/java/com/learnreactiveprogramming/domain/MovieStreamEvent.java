@@ -0,0 +1,8 @@
+package com.learnreactiveprogramming.domain;
+
+// a movie streamed as its header followed by review chunks, the next header starts the next movie
+public interface MovieStreamEvent {
+
+    Long getMovieInfoId();
+
+}
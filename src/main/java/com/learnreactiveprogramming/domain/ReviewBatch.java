@@ -0,0 +1,261 @@
+package com.learnreactiveprogramming.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// columnar reviews: one primitive array per field and every distinct comment stored once
+public final class ReviewBatch {
+
+    private static final int NO_COMMENT = -1;
+    private static final ReviewBatch EMPTY = new ReviewBatch(new long[0], new long[0], new double[0], new int[0], new String[0], 0);
+
+    private final long[] reviewIds;
+    private final long[] movieInfoIds;
+    private final double[] ratings; // NaN when the review has no rating
+    private final int[] commentIndexes; // index into comments, NO_COMMENT when there is none
+    private final String[] comments;
+    private final int size;
+
+    private ReviewBatch(long[] reviewIds, long[] movieInfoIds, double[] ratings, int[] commentIndexes, String[] comments, int size) {
+        this.reviewIds = reviewIds;
+        this.movieInfoIds = movieInfoIds;
+        this.ratings = ratings;
+        this.commentIndexes = commentIndexes;
+        this.comments = comments;
+        this.size = size;
+    }
+
+    public static ReviewBatch empty() {
+        return EMPTY;
+    }
+
+    public static ReviewBatch of(List<Review> reviews) {
+        Builder builder = builder(reviews.size());
+        reviews.forEach(builder::add);
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return builder(16);
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getReviewId(int index) {
+        return reviewIds[checkIndex(index)];
+    }
+
+    public long getMovieInfoId(int index) {
+        return movieInfoIds[checkIndex(index)];
+    }
+
+    public double getRating(int index) {
+        return ratings[checkIndex(index)];
+    }
+
+    public String getComment(int index) {
+        int commentIndex = commentIndexes[checkIndex(index)];
+        return commentIndex == NO_COMMENT ? null : comments[commentIndex];
+    }
+
+    public Review getReview(int index) {
+        double rating = getRating(index);
+        return new Review(getReviewId(index), getMovieInfoId(index), getComment(index), Double.isNaN(rating) ? null : rating);
+    }
+
+    public List<Review> toReviews() { // for callers that still need objects, allocates one Review per row
+        List<Review> reviews = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            reviews.add(getReview(i));
+        }
+        return reviews;
+    }
+
+    public double averageRating() {
+        double sum = 0;
+        int rated = 0;
+        for (int i = 0; i < size; i++) {
+            double rating = ratings[i];
+            if (!Double.isNaN(rating)) {
+                sum += rating;
+                rated++;
+            }
+        }
+        return rated == 0 ? Double.NaN : sum / rated;
+    }
+
+    public Map<Long, Double> averageRatingByMovie() {
+        Map<Long, double[]> sumAndCount = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            double rating = ratings[i];
+            if (!Double.isNaN(rating)) {
+                double[] accumulator = sumAndCount.computeIfAbsent(movieInfoIds[i], movieInfoId -> new double[2]);
+                accumulator[0] += rating;
+                accumulator[1]++;
+            }
+        }
+        Map<Long, Double> averages = new LinkedHashMap<>();
+        sumAndCount.forEach((movieInfoId, accumulator) -> averages.put(movieInfoId, accumulator[0] / accumulator[1]));
+        return averages;
+    }
+
+    public Map<Long, ReviewBatch> splitByMovie() { // one pass to count, one to copy, every slice keeps only the comments it references
+        Map<Long, int[]> counts = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            counts.computeIfAbsent(movieInfoIds[i], movieInfoId -> new int[1])[0]++;
+        }
+        if (counts.size() <= 1) {
+            return counts.isEmpty() ? Collections.emptyMap() : Collections.singletonMap(movieInfoIds[0], this);
+        }
+        Map<Long, Builder> builders = new HashMap<>();
+        counts.forEach((movieInfoId, count) -> builders.put(movieInfoId, new Builder(count[0], comments)));
+        for (int i = 0; i < size; i++) {
+            builders.get(movieInfoIds[i]).addSliceRow(reviewIds[i], movieInfoIds[i], ratings[i], commentIndexes[i]);
+        }
+        Map<Long, ReviewBatch> slices = new LinkedHashMap<>();
+        counts.keySet().forEach(movieInfoId -> slices.put(movieInfoId, builders.get(movieInfoId).build()));
+        return slices;
+    }
+
+    public long estimateSize() {
+        long size = 16 + 4 * 16 + this.size * (8L + 8L + 8L + 4L);
+        for (String comment : comments) {
+            size += 40 + 2L * comment.length();
+        }
+        return size;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ReviewBatch)) {
+            return false;
+        }
+        ReviewBatch other = (ReviewBatch) o;
+        if (size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (reviewIds[i] != other.reviewIds[i] || movieInfoIds[i] != other.movieInfoIds[i]
+                    || Double.compare(ratings[i], other.ratings[i]) != 0 || !Objects.equals(getComment(i), other.getComment(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = size;
+        for (int i = 0; i < size; i++) {
+            result = 31 * result + Long.hashCode(reviewIds[i]);
+            result = 31 * result + Long.hashCode(movieInfoIds[i]);
+            result = 31 * result + Double.hashCode(ratings[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ReviewBatch(size=" + size + ", comments=" + comments.length + ")";
+    }
+
+    public static final class Builder {
+        private long[] reviewIds;
+        private long[] movieInfoIds;
+        private double[] ratings;
+        private int[] commentIndexes;
+        private final List<String> comments = new ArrayList<>();
+        private final Map<String, Integer> commentIndexByText;
+        private final String[] sourceComments; // set when slicing, the dictionary of the batch being split
+        private final Map<Integer, Integer> commentIndexBySource;
+        private int size;
+
+        private Builder(int expectedSize) {
+            this(expectedSize, null);
+        }
+
+        private Builder(int expectedSize, String[] sourceComments) {
+            int capacity = Math.max(expectedSize, 1);
+            this.reviewIds = new long[capacity];
+            this.movieInfoIds = new long[capacity];
+            this.ratings = new double[capacity];
+            this.commentIndexes = new int[capacity];
+            this.sourceComments = sourceComments;
+            this.commentIndexByText = sourceComments == null ? new HashMap<>() : null;
+            this.commentIndexBySource = sourceComments != null ? new HashMap<>() : null;
+        }
+
+        public Builder add(Review review) {
+            if (sourceComments != null) {
+                throw new IllegalStateException("A slice builder only takes rows of its batch");
+            }
+            int commentIndex = review.getComment() == null
+                    ? NO_COMMENT
+                    : commentIndexByText.computeIfAbsent(review.getComment(), comment -> {
+                        comments.add(comment);
+                        return comments.size() - 1;
+                    });
+            addRow(review.getReviewId() == null ? 0L : review.getReviewId(),
+                    review.getMovieInfoId() == null ? 0L : review.getMovieInfoId(),
+                    review.getRating() == null ? Double.NaN : review.getRating(),
+                    commentIndex);
+            return this;
+        }
+
+        private void addSliceRow(long reviewId, long movieInfoId, double rating, int sourceCommentIndex) {
+            int commentIndex = sourceCommentIndex == NO_COMMENT
+                    ? NO_COMMENT
+                    : commentIndexBySource.computeIfAbsent(sourceCommentIndex, index -> {
+                        comments.add(sourceComments[index]); // same String instance, only the dictionary is rebuilt
+                        return comments.size() - 1;
+                    });
+            addRow(reviewId, movieInfoId, rating, commentIndex);
+        }
+
+        private void addRow(long reviewId, long movieInfoId, double rating, int commentIndex) {
+            if (size == reviewIds.length) {
+                int capacity = size + (size >> 1) + 1;
+                reviewIds = Arrays.copyOf(reviewIds, capacity);
+                movieInfoIds = Arrays.copyOf(movieInfoIds, capacity);
+                ratings = Arrays.copyOf(ratings, capacity);
+                commentIndexes = Arrays.copyOf(commentIndexes, capacity);
+            }
+            reviewIds[size] = reviewId;
+            movieInfoIds[size] = movieInfoId;
+            ratings[size] = rating;
+            commentIndexes[size] = commentIndex;
+            size++;
+        }
+
+        public ReviewBatch build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new ReviewBatch(Arrays.copyOf(reviewIds, size), Arrays.copyOf(movieInfoIds, size),
+                    Arrays.copyOf(ratings, size), Arrays.copyOf(commentIndexes, size), comments.toArray(new String[0]), size);
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.learnreactiveprogramming.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewChunk implements MovieStreamEvent {
+    private Long movieInfoId;
+    private long sequence; // position of the chunk within its movie, starting at 0
+    private List<Review> reviews;
+}
@@ -0,0 +1,20 @@
+package com.learnreactiveprogramming.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ReviewStats {
+    private long count; // all reviews, ratedCount only those with a rating
+    private long ratedCount;
+    private double mean; // NaN for the rating fields when nothing was rated
+    private double min;
+    private double max;
+    private double p50; // approximate, P-square estimate
+    private double p90;
+}
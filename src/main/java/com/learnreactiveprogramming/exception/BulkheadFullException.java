@@ -0,0 +1,10 @@
+package com.learnreactiveprogramming.exception;
+
+public class BulkheadFullException extends RuntimeException {
+    String message;
+
+    public BulkheadFullException(String message) {
+        super(message);
+        this.message = message;
+    }
+}
@@ -0,0 +1,203 @@
+package com.learnreactiveprogramming.service;
+
+import com.learnreactiveprogramming.domain.Movie;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BackpressurePolicy {
+
+    public enum Strategy {
+        BUFFER_OR_ERROR, // bounded buffer, error once it overflows
+        DROP_OLDEST,
+        DROP_NEWEST,
+        KEEP_LATEST_PER_MOVIE, // one pending movie per movieInfoId, a newer version replaces the pending one
+        SAMPLE // latest movie of every period
+    }
+
+    private final Strategy strategy;
+    private final int bufferSize;
+    private final Duration samplePeriod;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong emitted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong highWaterMark = new AtomicLong();
+
+    private BackpressurePolicy(Strategy strategy, int bufferSize, Duration samplePeriod) {
+        this.strategy = strategy;
+        this.bufferSize = bufferSize;
+        this.samplePeriod = samplePeriod;
+    }
+
+    public static BackpressurePolicy bufferOrError(int bufferSize) {
+        return new BackpressurePolicy(Strategy.BUFFER_OR_ERROR, bufferSize, null);
+    }
+
+    public static BackpressurePolicy dropOldest(int bufferSize) {
+        return new BackpressurePolicy(Strategy.DROP_OLDEST, bufferSize, null);
+    }
+
+    public static BackpressurePolicy dropNewest(int bufferSize) {
+        return new BackpressurePolicy(Strategy.DROP_NEWEST, bufferSize, null);
+    }
+
+    public static BackpressurePolicy keepLatestPerMovie() {
+        return new BackpressurePolicy(Strategy.KEEP_LATEST_PER_MOVIE, Integer.MAX_VALUE, null);
+    }
+
+    public static BackpressurePolicy sample(Duration samplePeriod) {
+        return new BackpressurePolicy(Strategy.SAMPLE, 1, samplePeriod);
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public BackpressureStats getStats() {
+        return new BackpressureStats(received.get(), emitted.get(), dropped.get(), highWaterMark.get());
+    }
+
+    public Flux<Movie> apply(Flux<Movie> movies) {
+        Flux<Movie> shaped;
+        switch (strategy) {
+            case BUFFER_OR_ERROR:
+                shaped = counted(movies).onBackpressureBuffer(bufferSize, BufferOverflowStrategy.ERROR);
+                break;
+            case DROP_OLDEST:
+                shaped = counted(movies).onBackpressureBuffer(bufferSize, movie -> dropped.incrementAndGet(), BufferOverflowStrategy.DROP_OLDEST);
+                break;
+            case DROP_NEWEST:
+                shaped = counted(movies).onBackpressureBuffer(bufferSize, movie -> dropped.incrementAndGet(), BufferOverflowStrategy.DROP_LATEST);
+                break;
+            case KEEP_LATEST_PER_MOVIE:
+                shaped = Flux.create(sink -> new LatestPerMovieBuffer(sink).subscribe(movies));
+                break;
+            case SAMPLE:
+                shaped = sampled(movies);
+                break;
+            default:
+                throw new IllegalStateException("Unknown backpressure strategy " + strategy);
+        }
+        return shaped.doOnNext(movie -> emitted.incrementAndGet());
+    }
+
+    private Flux<Movie> counted(Flux<Movie> movies) {
+        return movies.doOnNext(movie -> {
+            long held = received.incrementAndGet() - emitted.get() - dropped.get();
+            updateHighWaterMark(Math.min(held, bufferSize)); // an overflowing element is dropped right after this
+        });
+    }
+
+    private Flux<Movie> sampled(Flux<Movie> movies) {
+        return Flux.defer(() -> {
+            AtomicLong sinceLastSample = new AtomicLong();
+            return counted(movies)
+                    .doOnNext(movie -> sinceLastSample.incrementAndGet())
+                    .sample(samplePeriod)
+                    .doOnNext(movie -> dropped.addAndGet(sinceLastSample.getAndSet(0) - 1)) // all but the sampled one
+                    .onBackpressureDrop(movie -> dropped.incrementAndGet()); // subscriber not ready when the period ended
+        });
+    }
+
+    private void updateHighWaterMark(long held) {
+        long current;
+        while (held > (current = highWaterMark.get())) {
+            if (highWaterMark.compareAndSet(current, held)) {
+                return;
+            }
+        }
+    }
+
+    private final class LatestPerMovieBuffer {
+        private final FluxSink<Movie> sink;
+        private final Map<Long, Movie> pending = new LinkedHashMap<>(); // guarded by itself, keeps first arrival order
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean done;
+        private volatile Throwable error;
+
+        private LatestPerMovieBuffer(FluxSink<Movie> sink) {
+            this.sink = sink;
+        }
+
+        private void subscribe(Flux<Movie> movies) {
+            Disposable upstream = movies.subscribe(this::offer, this::fail, this::finish); // unbounded, we conflate instead
+            sink.onRequest(requested -> drain());
+            sink.onDispose(upstream);
+        }
+
+        private void offer(Movie movie) {
+            received.incrementAndGet();
+            synchronized (pending) {
+                if (pending.put(movie.getMovie().getMovieInfoId(), movie) != null) {
+                    dropped.incrementAndGet(); // replaced by the newer version
+                }
+                updateHighWaterMark(pending.size());
+            }
+            drain();
+        }
+
+        private void fail(Throwable throwable) {
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        private void finish() {
+            done = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                    Movie next = poll();
+                    if (next == null) {
+                        break;
+                    }
+                    sink.next(next);
+                }
+                if (done && isEmpty()) {
+                    if (error != null) {
+                        sink.error(error);
+                    } else {
+                        sink.complete();
+                    }
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private Movie poll() {
+            synchronized (pending) {
+                Iterator<Movie> iterator = pending.values().iterator();
+                if (!iterator.hasNext()) {
+                    return null;
+                }
+                Movie next = iterator.next();
+                iterator.remove();
+                return next;
+            }
+        }
+
+        private boolean isEmpty() {
+            synchronized (pending) {
+                return pending.isEmpty();
+            }
+        }
+    }
+
+}
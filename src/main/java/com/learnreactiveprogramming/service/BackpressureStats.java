@@ -0,0 +1,11 @@
+package com.learnreactiveprogramming.service;
+
+import lombok.Value;
+
+@Value
+public class BackpressureStats {
+    long receivedCount; // produced by the upstream
+    long emittedCount; // delivered to the subscriber
+    long droppedCount;
+    long highWaterMark; // most elements held back at the same time
+}
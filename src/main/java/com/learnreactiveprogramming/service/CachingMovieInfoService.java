@@ -0,0 +1,27 @@
+package com.learnreactiveprogramming.service;
+
+import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.util.CacheStats;
+import com.learnreactiveprogramming.util.ReactiveCache;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+public class CachingMovieInfoService extends MovieInfoService {
+
+    private final ReactiveCache<Long, MovieInfo> cache;
+
+    public CachingMovieInfoService(WebClient webClient, ReactiveCache<Long, MovieInfo> cache) {
+        super(webClient);
+        this.cache = cache;
+    }
+
+    @Override
+    public Mono<MovieInfo> getMovieInfo(Long id) {
+        return cache.get(id, super::getMovieInfo);
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.learnreactiveprogramming.service;
+
+import com.learnreactiveprogramming.domain.Review;
+import com.learnreactiveprogramming.util.CacheStats;
+import com.learnreactiveprogramming.util.ReactiveCache;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class CachingReviewService extends ReviewService {
+
+    private final ReactiveCache<Long, List<Review>> cache;
+
+    public CachingReviewService(WebClient webClient, ReactiveCache<Long, List<Review>> cache) {
+        super(webClient);
+        this.cache = cache;
+    }
+
+    @Override
+    public Flux<Review> getReviews(Long movieInfoId) {
+        return cache.get(movieInfoId, id -> super.getReviews(id).collectList().map(List::copyOf))
+                .flatMapIterable(Function.identity());
+    }
+
+    @Override
+    public Flux<Review> getReviewsForMovies(Collection<Long> movieInfoIds) {
+        return Flux.defer(() -> {
+            List<Review> cached = new ArrayList<>();
+            List<Long> missing = new ArrayList<>();
+            for (Long movieInfoId : movieInfoIds) {
+                List<Review> reviews = cache.getIfPresent(movieInfoId);
+                if (reviews != null) {
+                    cached.addAll(reviews);
+                } else {
+                    missing.add(movieInfoId);
+                }
+            }
+            if (missing.isEmpty()) {
+                return Flux.fromIterable(cached);
+            }
+            Flux<Review> fetched = missing.size() == 1 ? super.getReviews(missing.get(0)) : super.getReviewsForMovies(missing);
+            return Flux.fromIterable(cached)
+                    .concatWith(fetched.collectList()
+                            .doOnNext(reviews -> cacheByMovie(missing, reviews))
+                            .flatMapIterable(Function.identity()));
+        });
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    private void cacheByMovie(List<Long> movieInfoIds, List<Review> reviews) {
+        Map<Long, List<Review>> reviewsById = reviews.stream()
+                .collect(Collectors.groupingBy(Review::getMovieInfoId));
+        movieInfoIds.forEach(movieInfoId -> cache.put(movieInfoId, List.copyOf(reviewsById.getOrDefault(movieInfoId, List.of()))));
+    }
+
+}
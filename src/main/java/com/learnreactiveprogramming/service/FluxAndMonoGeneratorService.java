@@ -1,5 +1,7 @@
 package com.learnreactiveprogramming.service;
 
+import com.learnreactiveprogramming.util.CodePointFlux;
+import com.learnreactiveprogramming.util.PipelineMetrics;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -46,19 +48,19 @@ public class FluxAndMonoGeneratorService {
         return Flux.fromIterable(names())
                 .take(1)
                 .flatMap(this::split)
-                .log();
+                .transform(PipelineMetrics.of("generator.namesFlux_flatMap"));
     }
 
     public Flux<String> namesFlux_flatMapAsync() {
         return Flux.fromIterable(names())
                 .flatMap(this::splitWithDelay) // when the order is not matter
-                .log();
+                .transform(PipelineMetrics.of("generator.namesFlux_flatMapAsync"));
     }
 
     public Flux<String> namesFlux_concatMapAsync() {
         return Flux.fromIterable(names())
                 .concatMap(this::splitWithDelay) // when the order is matter, but it's slower than flatMap
-                .log();
+                .transform(PipelineMetrics.of("generator.namesFlux_concatMapAsync"));
     }
 
     public Mono<List<String>> namesMonoList_flatMap() {
@@ -66,13 +68,13 @@ public class FluxAndMonoGeneratorService {
                 .take(1)
                 .flatMap(this::split)
                 .collectList()
-                .log();
+                .transform(PipelineMetrics.of("generator.namesMonoList_flatMap"));
     }
 
     public Flux<String> nameMono_flatMapMany() {
         return Mono.just("Alex")
                 .flatMapMany(this::split)
-                .log();
+                .transform(PipelineMetrics.of("generator.nameMono_flatMapMany"));
     }
 
     public Flux<String> nameMonoList_flatMapMany() {
@@ -80,13 +82,13 @@ public class FluxAndMonoGeneratorService {
                 .flatMapMany(Flux::fromIterable)
                 .take(1)
                 .flatMap(this::split)
-                .log();
+                .transform(PipelineMetrics.of("generator.nameMonoList_flatMapMany"));
     }
 
     public Flux<String> namesFlux_transform() {
         return Flux.fromIterable(names())
                 .transform(names -> names.map(String::toUpperCase))
-                .log();
+                .transform(PipelineMetrics.of("generator.namesFlux_transform"));
     }
 
     public Flux<String> namesMono_map_filter_defaultIfEmpty(int stringLength) {
@@ -122,39 +124,39 @@ public class FluxAndMonoGeneratorService {
     public Flux<String> explore_mergeWith() {
         Flux<String> ab = Flux.just("A", "B").delayElements(Duration.ofMillis(100));
         Flux<String> cde = Flux.just("C", "D", "E").delayElements(Duration.ofMillis(200));
-        return ab.mergeWith(cde).log(); // publishers are subscribed simultaneously
+        return ab.mergeWith(cde).transform(PipelineMetrics.of("generator.explore_mergeWith")); // publishers are subscribed simultaneously
     }
 
     public Flux<String> explore_mergeWith_mono() {
         Mono<String> aMono = Mono.just("A");
         Mono<String> bMono = Mono.just("B");
-        return aMono.mergeWith(bMono).log(); // publishers are subscribed simultaneously
+        return aMono.mergeWith(bMono).transform(PipelineMetrics.of("generator.explore_mergeWith_mono")); // publishers are subscribed simultaneously
     }
 
     public Flux<String> explore_mergeSequential() {
         Flux<String> ab = Flux.just("A", "B").delayElements(Duration.ofMillis(100));
         Flux<String> cde = Flux.just("C", "D", "E").delayElements(Duration.ofMillis(200));
-        return Flux.mergeSequential(ab, cde).log(); // when the ordering matters
+        return Flux.mergeSequential(ab, cde).transform(PipelineMetrics.of("generator.explore_mergeSequential")); // when the ordering matters
     }
 
     public Flux<String> explore_zip() {
         Flux<String> ab = Flux.just("A", "B");
         Flux<String> cde = Flux.just("C", "D", "E");
-        return Flux.zip(ab, cde, String::concat).log();
+        return Flux.zip(ab, cde, String::concat).transform(PipelineMetrics.of("generator.explore_zip"));
     }
 
     public Flux<String> exception_flux() {
         return Flux.fromIterable(names())
                 .concatWith(Flux.error(new RuntimeException("Error occurred")))
                 .concatWith(Flux.just("Misha"))
-                .log();
+                .transform(PipelineMetrics.of("generator.exception_flux"));
     }
 
     public Flux<String> exception_onErrorReturn() {
         return Flux.fromIterable(names())
                 .concatWith(Flux.error(new IllegalStateException("Error occurred")))
                 .onErrorReturn("Misha") // stream will be terminated
-                .log();
+                .transform(PipelineMetrics.of("generator.exception_onErrorReturn"));
     }
 
     public Flux<String> exception_onErrorResume(Exception e) {
@@ -168,7 +170,7 @@ public class FluxAndMonoGeneratorService {
                     }
                     return Flux.error(e);
                 }) // recover from error, return another stream, the previous one will be terminated
-                .log();
+                .transform(PipelineMetrics.of("generator.exception_onErrorResume"));
     }
 
     public Flux<Integer> explore_generate() {
@@ -182,7 +184,7 @@ public class FluxAndMonoGeneratorService {
                     return ++state;
                 })
                 .cast(Integer.class)
-                .log();
+                .transform(PipelineMetrics.of("generator.explore_generate"));
     }
 
     public Flux<String> explore_create() {
@@ -192,7 +194,7 @@ public class FluxAndMonoGeneratorService {
                                 .forEach(sink::next))
                         .thenRun(sink::complete))
                 .cast(String.class)
-                .log();
+                .transform(PipelineMetrics.of("generator.explore_create"));
     }
 
     public Mono<String> explore_create_mono() {
@@ -211,7 +213,7 @@ public class FluxAndMonoGeneratorService {
                 })
                 .concatWith(Flux.just("John"))
                 .onErrorContinue((throwable, o) -> log.error("Error occurred with object " + o, throwable)) // logging purposes, current stream won't be terminated
-                .log();
+                .transform(PipelineMetrics.of("generator.exception_onErrorContinue"));
     }
 
     public Flux<String> exception_onErrorMap() {
@@ -223,7 +225,7 @@ public class FluxAndMonoGeneratorService {
                     return name;
                 })
                 .onErrorMap(RuntimeException::new) // when you want to transform one exception to another, the other elements will be terminated
-                .log();
+                .transform(PipelineMetrics.of("generator.exception_onErrorMap"));
     }
 
     public Flux<String> exception_doOnError() {
@@ -235,7 +237,7 @@ public class FluxAndMonoGeneratorService {
                     return name;
                 })
                 .doOnError(throwable -> log.error("Error occurred", throwable)) // doesn't modify the reactive stream, after catching an exception, the other elements will be terminated
-                .log();
+                .transform(PipelineMetrics.of("generator.exception_doOnError"));
     }
 
     public Mono<Object> exception_monoOnErrorReturn() {
@@ -244,7 +246,7 @@ public class FluxAndMonoGeneratorService {
                     throw new RuntimeException();
                 })
                 .onErrorReturn("Recover value")
-                .log();
+                .transform(PipelineMetrics.of("generator.exception_monoOnErrorReturn"));
     }
 
     public Mono<String> task(String value) {
@@ -256,18 +258,16 @@ public class FluxAndMonoGeneratorService {
                     return v;
                 })
                 .onErrorContinue((throwable, o) -> log.error("Error occurred with object - " + o, throwable))
-                .log();
+                .transform(PipelineMetrics.of("generator.task"));
     }
 
     private Flux<String> split(String name) {
-        String[] split = name.split("");
-        return Flux.fromArray(split);
+        return CodePointFlux.of(name); // same as Flux.fromArray(name.split("")) without the regex and the array
     }
 
     private Flux<String> splitWithDelay(String name) {
-        String[] chars = name.split("");
         int delay = new SecureRandom().nextInt(1000);
-        return Flux.fromArray(chars)
+        return CodePointFlux.of(name)
                 .delayElements(Duration.ofMillis(delay));
     }
 
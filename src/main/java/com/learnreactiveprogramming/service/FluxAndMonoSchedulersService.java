@@ -1,5 +1,6 @@
 package com.learnreactiveprogramming.service;
 
+import com.learnreactiveprogramming.util.BlockingScheduler;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -86,6 +87,14 @@ public class FluxAndMonoSchedulersService {
                 .log();
     }
 
+    public Flux<String> explore_blockingOffload(BlockingScheduler blockingScheduler) {
+        return Flux.fromIterable(namesList1)
+                .concatWith(Flux.fromIterable(namesList2))
+                .flatMap(name -> Mono.fromCallable(() -> upperCaseWithDelay(name))
+                        .subscribeOn(blockingScheduler.scheduler())) // every blocking call gets its own thread, virtual or from the bounded pool
+                .log();
+    }
+
     private String upperCaseWithDelay(String name) {
         delay(1000);
         return name.toUpperCase();
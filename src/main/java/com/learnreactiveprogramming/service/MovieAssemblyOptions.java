@@ -0,0 +1,58 @@
+package com.learnreactiveprogramming.service;
+
+import com.learnreactiveprogramming.util.BlockingScheduler;
+import com.learnreactiveprogramming.util.PipelineMetrics;
+import lombok.Builder;
+import lombok.Value;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+
+@Value
+@Builder(toBuilder = true)
+public class MovieAssemblyOptions {
+
+    @Builder.Default
+    int concurrency = Queues.SMALL_BUFFER_SIZE; // max movies assembled at the same time, Reactor's flatMap default
+    @Builder.Default
+    int prefetch = Queues.XS_BUFFER_SIZE; // movies requested up front from every inner, only the review batch assembly has more than one
+    @Builder.Default
+    boolean ordered = false; // true keeps the source order (flatMapSequential), false emits as soon as ready (flatMap)
+    @Builder.Default
+    boolean streamingCatalog = false; // fetch the rest catalog as application/x-ndjson instead of a json array
+    @Builder.Default
+    boolean resumableRetry = false; // retry the failed movie only and resume the catalog after the last movie info received
+    @Builder.Default
+    long maxRetries = 5L;
+    @Builder.Default
+    Duration retryBackoff = Duration.ofMillis(100L); // first backoff of the resumable retries
+    @Builder.Default
+    double retryJitter = 0.5d;
+    @Builder.Default
+    boolean statsOnly = false; // movies carry ReviewStats instead of the review list
+    @Builder.Default
+    int reviewBatchSize = ReviewBatchLoader.DEFAULT_MAX_BATCH_SIZE; // movies sharing one review request, in the batch assembly and the review lookups of getMoviesUsingRest
+    @Builder.Default
+    Duration reviewBatchWindow = ReviewBatchLoader.DEFAULT_MAX_WAIT; // how long a review lookup waits for others to share its request
+    @Builder.Default
+    int reviewChunkSize = 100; // max reviews per ReviewChunk of the streaming assembly
+    @Builder.Default
+    Duration reviewChunkWindow = Duration.ofMillis(100L); // a partial chunk is emitted once this elapsed
+    @Builder.Default
+    int reviewChunkBacklog = 16; // chunks held for a slow subscriber, the stream fails with an overflow beyond that
+    Duration reviewBudget; // when set, a movie is returned with empty reviews if they fail or take longer
+    Duration revenueBudget; // when set, a movie is returned without revenue if it fails or takes longer
+    @Builder.Default
+    int parallelism = Schedulers.DEFAULT_POOL_SIZE; // rails of the parallel assembly, one per core by default
+    @Builder.Default
+    Duration warmSnapshotTtl = Duration.ofMinutes(10); // longest a warm start serves the snapshot while the refresh runs
+    @Builder.Default
+    PipelineMetrics metrics = PipelineMetrics.shared(); // where the stages are counted, a registry of its own keeps services or tests apart
+    @Builder.Default
+    BlockingScheduler blockingScheduler = BlockingScheduler.BOUNDED_ELASTIC; // where the blocking movie info lookups run
+
+    public static MovieAssemblyOptions defaults() {
+        return MovieAssemblyOptions.builder().build();
+    }
+}
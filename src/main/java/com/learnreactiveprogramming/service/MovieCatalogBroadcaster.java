@@ -0,0 +1,253 @@
+package com.learnreactiveprogramming.service;
+
+import com.learnreactiveprogramming.domain.Movie;
+import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.domain.Review;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+@Slf4j
+public class MovieCatalogBroadcaster {
+
+    public static final long DEFAULT_MAX_REPLAY_BYTES = 8L * 1024 * 1024;
+
+    private final Supplier<Flux<Movie>> catalog;
+    private final long maxReplayBytes;
+    private final ToLongFunction<Movie> sizeEstimator;
+
+    private final Object lock = new Object();
+    private final List<CatalogSubscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Deque<ReplayedMovie> replay = new ArrayDeque<>(); // guarded by lock
+    private final LongAdder upstreamSubscriptions = new LongAdder();
+    private long replayBytes; // guarded by lock
+    private boolean connected; // guarded by lock
+    private long connection; // guarded by lock, tells the signals of a cancelled upstream apart from the current one
+    private Disposable upstream; // guarded by lock
+
+    public MovieCatalogBroadcaster(MovieReactiveService movieReactiveService) {
+        this(movieReactiveService::getAllMovies, DEFAULT_MAX_REPLAY_BYTES, MovieCatalogBroadcaster::estimateSize);
+    }
+
+    public MovieCatalogBroadcaster(Supplier<Flux<Movie>> catalog, long maxReplayBytes, ToLongFunction<Movie> sizeEstimator) {
+        this.catalog = catalog;
+        this.maxReplayBytes = maxReplayBytes;
+        this.sizeEstimator = sizeEstimator;
+    }
+
+    // a subscriber arriving after the catalog completed starts a fresh assembly, the finished one is not replayed
+    public Flux<Movie> movies() {
+        return Flux.defer(() -> {
+            CatalogSubscriber subscriber = new CatalogSubscriber();
+            return Flux.<Movie>create(sink -> register(subscriber, sink)) // every subscriber gets its own buffer, a slow one does not hold back the others
+                    .doOnNext(movie -> subscriber.pendingBytes.addAndGet(-sizeEstimator.applyAsLong(movie))) // delivered, no longer buffered
+                    .takeUntilOther(subscriber.cutOff.asMono()); // the cut-off error skips the movies still buffered
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getUpstreamSubscriptionCount() {
+        return upstreamSubscriptions.sum();
+    }
+
+    public long getReplayBytes() {
+        synchronized (lock) {
+            return replayBytes;
+        }
+    }
+
+    private void register(CatalogSubscriber subscriber, FluxSink<Movie> sink) {
+        subscriber.sink = sink;
+        sink.onDispose(() -> unregister(subscriber));
+        long newConnection = -1L;
+        synchronized (lock) {
+            if (connected) {
+                replay.forEach(subscriber::enqueue); // late joiner catches up first, delivered once the lock is released
+            } else {
+                connected = true;
+                newConnection = ++connection;
+                replay.clear();
+                replayBytes = 0;
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.drain();
+        if (newConnection != -1L) {
+            connect(newConnection);
+        }
+    }
+
+    private void unregister(CatalogSubscriber subscriber) {
+        Disposable cancelled = null;
+        synchronized (lock) {
+            if (subscribers.remove(subscriber) && subscribers.isEmpty() && connected) {
+                log.debug("Last catalog subscriber left, cancelling the upstream assembly");
+                connected = false;
+                cancelled = upstream;
+                upstream = null;
+            }
+        }
+        if (cancelled != null) {
+            cancelled.dispose();
+        }
+    }
+
+    private void connect(long newConnection) { // outside the lock, a synchronous upstream runs the whole catalog right here
+        upstreamSubscriptions.increment();
+        Disposable subscription = catalog.get()
+                .subscribe(movie -> publish(newConnection, movie), throwable -> fail(newConnection, throwable), () -> complete(newConnection));
+        boolean current;
+        synchronized (lock) {
+            current = connected && connection == newConnection; // false once it terminated or every subscriber left meanwhile
+            if (current) {
+                upstream = subscription;
+            }
+        }
+        if (!current) {
+            subscription.dispose();
+        }
+    }
+
+    private void publish(long fromConnection, Movie movie) {
+        ReplayedMovie replayedMovie = new ReplayedMovie(movie, sizeEstimator.applyAsLong(movie));
+        List<CatalogSubscriber> recipients;
+        synchronized (lock) {
+            if (connection != fromConnection || !connected) {
+                return;
+            }
+            replay.addLast(replayedMovie);
+            replayBytes += replayedMovie.size;
+            while (replayBytes > maxReplayBytes && !replay.isEmpty()) {
+                replayBytes -= replay.removeFirst().size;
+            }
+            recipients = List.copyOf(subscribers); // a joiner registering from now on gets this movie from the replay
+        }
+        recipients.forEach(subscriber -> subscriber.offer(replayedMovie)); // outside the lock, a subscriber's onNext may run inline
+    }
+
+    private void complete(long fromConnection) {
+        List<CatalogSubscriber> recipients = disconnect(fromConnection);
+        recipients.forEach(subscriber -> subscriber.terminate(null));
+    }
+
+    private void fail(long fromConnection, Throwable throwable) {
+        List<CatalogSubscriber> recipients = disconnect(fromConnection);
+        recipients.forEach(subscriber -> subscriber.terminate(throwable));
+    }
+
+    private List<CatalogSubscriber> disconnect(long fromConnection) {
+        synchronized (lock) {
+            if (connection != fromConnection || !connected) {
+                return List.of();
+            }
+            connected = false;
+            upstream = null;
+            List<CatalogSubscriber> recipients = List.copyOf(subscribers);
+            subscribers.clear();
+            return recipients;
+        }
+    }
+
+    static long estimateSize(Movie movie) {
+        long size = 32;
+        MovieInfo movieInfo = movie.getMovie();
+        if (movieInfo != null) {
+            size += 64 + estimateSize(movieInfo.getName());
+            if (movieInfo.getCast() != null) {
+                size += movieInfo.getCast().stream().mapToLong(MovieCatalogBroadcaster::estimateSize).sum();
+            }
+        }
+        if (movie.getReviewList() != null) {
+            for (Review review : movie.getReviewList()) {
+                size += 64 + estimateSize(review.getComment());
+            }
+        }
+        if (movie.getReviewBatch() != null) {
+            size += movie.getReviewBatch().estimateSize();
+        }
+        return size;
+    }
+
+    private static long estimateSize(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    private final class CatalogSubscriber {
+        private final AtomicLong pendingBytes = new AtomicLong(); // offered but not yet delivered
+        private final Queue<ReplayedMovie> queue = new ConcurrentLinkedQueue<>(); // keeps the catch-up ahead of newer movies
+        private final AtomicInteger wip = new AtomicInteger();
+        private final Sinks.Empty<Void> cutOff = Sinks.empty();
+        private volatile FluxSink<Movie> sink;
+        private volatile boolean done;
+        private Throwable error; // written before done
+
+        private void offer(ReplayedMovie replayedMovie) {
+            enqueue(replayedMovie);
+            drain();
+        }
+
+        private void enqueue(ReplayedMovie replayedMovie) {
+            if (pendingBytes.addAndGet(replayedMovie.size) > maxReplayBytes) { // fell behind by more than a replay, cut it off instead of buffering the catalog
+                queue.clear();
+                unregister(this);
+                cutOff.tryEmitError(Exceptions.failWithOverflow("Catalog subscriber fell more than " + maxReplayBytes + " bytes behind"));
+                return;
+            }
+            queue.offer(replayedMovie);
+        }
+
+        private void terminate(Throwable throwable) { // after the movies already queued
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                ReplayedMovie replayedMovie;
+                while ((replayedMovie = queue.poll()) != null) {
+                    sink.next(replayedMovie.movie);
+                }
+                if (done) {
+                    if (error != null) {
+                        sink.error(error);
+                    } else {
+                        sink.complete();
+                    }
+                }
+            } while (wip.decrementAndGet() != 0);
+        }
+    }
+
+    private static final class ReplayedMovie {
+        private final Movie movie;
+        private final long size;
+
+        private ReplayedMovie(Movie movie, long size) {
+            this.movie = movie;
+            this.size = size;
+        }
+    }
+
+}
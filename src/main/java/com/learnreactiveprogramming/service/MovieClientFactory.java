@@ -0,0 +1,116 @@
+package com.learnreactiveprogramming.service;
+
+import com.learnreactiveprogramming.util.MovieCodecs;
+import com.learnreactiveprogramming.util.RateLimitingFilter;
+import com.learnreactiveprogramming.util.ReactiveCache;
+import lombok.Value;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class MovieClientFactory {
+
+    private final MovieClientOptions options;
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient httpClient;
+    private final RateLimitingFilter rateLimitingFilter; // shared by every client, so the limit holds across services
+    private final Map<String, ConnectionPoolMetrics> pools = new ConcurrentHashMap<>(); // one pool per remote address
+
+    public MovieClientFactory() {
+        this(MovieClientOptions.defaults());
+    }
+
+    public MovieClientFactory(MovieClientOptions options) {
+        this.options = options;
+        this.connectionProvider = ConnectionProvider.builder(options.getPoolName())
+                .maxConnections(options.getMaxConnections())
+                .pendingAcquireMaxCount(options.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(options.getPendingAcquireTimeout())
+                .maxIdleTime(options.getMaxIdleTime())
+                .maxLifeTime(options.getMaxLifeTime())
+                .evictInBackground(options.getEvictInBackground())
+                .metrics(true, () -> this::registerPool) // custom registrar, no micrometer needed
+                .build();
+        HttpClient client = HttpClient.create(connectionProvider)
+                .responseTimeout(options.getResponseTimeout())
+                .compress(options.isCompression());
+        if (options.isHttp2()) {
+            client = client.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        this.httpClient = client;
+        this.rateLimitingFilter = options.getRateLimit() != null ? new RateLimitingFilter(options.getRateLimit()) : null;
+    }
+
+    public WebClient webClient(String baseUrl) {
+        return webClientBuilder(baseUrl).build();
+    }
+
+    public WebClient.Builder webClientBuilder(String baseUrl) {
+        WebClient.Builder builder = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeaders(headers -> headers.setAccept(options.getWireFormat().getAcceptedMediaTypes())) // requests setting their own Accept keep it
+                .exchangeStrategies(MovieCodecs.exchangeStrategies(options.getMaxInMemorySize()));
+        if (rateLimitingFilter != null) {
+            builder.filter(rateLimitingFilter);
+        }
+        return builder;
+    }
+
+    public MovieInfoService movieInfoService(String baseUrl) {
+        WebClient webClient = webClient(baseUrl);
+        return options.getCacheTtl() != null
+                ? new CachingMovieInfoService(webClient, new ReactiveCache<>(options.getCacheTtl(), options.getCacheMaximumSize()))
+                : new MovieInfoService(webClient);
+    }
+
+    public ReviewService reviewService(String baseUrl) {
+        WebClient webClient = webClient(baseUrl);
+        return options.getCacheTtl() != null
+                ? new CachingReviewService(webClient, new ReactiveCache<>(options.getCacheTtl(), options.getCacheMaximumSize()))
+                : new ReviewService(webClient);
+    }
+
+    public RateLimitingFilter getRateLimitingFilter() {
+        return rateLimitingFilter;
+    }
+
+    public PoolMetrics getPoolMetrics() {
+        int active = 0;
+        int idle = 0;
+        int pending = 0;
+        int allocated = 0;
+        for (ConnectionPoolMetrics pool : pools.values()) {
+            active += pool.acquiredSize();
+            idle += pool.idleSize();
+            pending += pool.pendingAcquireSize();
+            allocated += pool.allocatedSize();
+        }
+        return new PoolMetrics(active, idle, pending, allocated, options.getMaxConnections() * Math.max(1, pools.size()));
+    }
+
+    public void dispose() {
+        connectionProvider.dispose();
+    }
+
+    private void registerPool(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        pools.put(id + "@" + remoteAddress, metrics);
+    }
+
+    @Value
+    public static class PoolMetrics {
+        int active; // connections currently acquired by a request
+        int idle;
+        int pending; // requests waiting for a connection
+        int allocated;
+        int maxConnections;
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.learnreactiveprogramming.service;
+
+import com.learnreactiveprogramming.util.MovieCodecs;
+import com.learnreactiveprogramming.util.RateLimit;
+import com.learnreactiveprogramming.util.WireFormat;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+@Builder(toBuilder = true)
+public class MovieClientOptions {
+
+    @Builder.Default
+    String poolName = "movies";
+    @Builder.Default
+    int maxConnections = 100; // per remote host, shared by every client built by the factory
+    @Builder.Default
+    int pendingAcquireMaxCount = 1000; // requests waiting for a connection before failing fast
+    @Builder.Default
+    Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+    @Builder.Default
+    Duration maxIdleTime = Duration.ofSeconds(30); // below the upstream keep-alive so we never reuse a closed connection
+    @Builder.Default
+    Duration maxLifeTime = Duration.ofMinutes(5);
+    @Builder.Default
+    Duration evictInBackground = Duration.ofSeconds(30);
+    @Builder.Default
+    Duration responseTimeout = Duration.ofSeconds(5);
+    @Builder.Default
+    boolean compression = true;
+    @Builder.Default
+    boolean http2 = false; // h2c with http/1.1 fallback
+    @Builder.Default
+    int maxInMemorySize = MovieCodecs.DEFAULT_MAX_IN_MEMORY_SIZE;
+    @Builder.Default
+    WireFormat wireFormat = WireFormat.JSON; // negotiated through the Accept header, json stays the fallback
+    RateLimit rateLimit; // applied to every endpoint separately, null sends requests unthrottled
+    Duration cacheTtl; // caches getMovieInfo and getReviews per movie id when set
+    @Builder.Default
+    int cacheMaximumSize = 10_000; // entries per cache, least recently used first out
+
+    public static MovieClientOptions defaults() {
+        return MovieClientOptions.builder().build();
+    }
+}
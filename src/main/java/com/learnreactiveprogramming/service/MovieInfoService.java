@@ -1,7 +1,11 @@
 package com.learnreactiveprogramming.service;
 
 import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.util.Deadline;
+import com.learnreactiveprogramming.util.HedgingPolicy;
+import com.learnreactiveprogramming.util.PipelineMetrics;
 import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -15,6 +19,16 @@ import static com.learnreactiveprogramming.util.CommonUtil.delay;
 public class MovieInfoService {
 
     private WebClient webClient;
+    private HedgingPolicy hedgingPolicy;
+    private PipelineMetrics metrics;
+
+    public MovieInfoService(WebClient webClient) {
+        this(webClient, HedgingPolicy.disabled());
+    }
+
+    public MovieInfoService(WebClient webClient, HedgingPolicy hedgingPolicy) {
+        this(webClient, hedgingPolicy, PipelineMetrics.shared());
+    }
 
     public Flux<MovieInfo> getAllMovieInfo_restClient() {
         return webClient.get()
@@ -22,15 +36,27 @@ public class MovieInfoService {
                 .retrieve()
                 .bodyToFlux(MovieInfo.class)
                 .map(movieInfo -> movieInfo)
-                .log();
+                .transform(Deadline.enforce("movieInfo.all.rest"))
+                .transform(metrics.stage("movieInfo.all.rest"));
     }
 
-    public Mono<MovieInfo> getMovieInfo(Long id) {
+    public Flux<MovieInfo> getAllMovieInfo_stream() {
         return webClient.get()
-                .uri("/v1/movie_infos/{id}", String.valueOf(id))
+                .uri("/v1/movie_infos")
+                .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON) // one record per line, decoded as requested downstream
                 .retrieve()
-                .bodyToMono(MovieInfo.class)
-                .log();
+                .bodyToFlux(MovieInfo.class)
+                .transform(Deadline.enforce("movieInfo.all.stream"))
+                .transform(metrics.stage("movieInfo.all.stream"));
+    }
+
+    public Mono<MovieInfo> getMovieInfo(Long id) {
+        return hedgingPolicy.hedge(() -> webClient.get()
+                        .uri("/v1/movie_infos/{id}", String.valueOf(id))
+                        .retrieve()
+                        .bodyToMono(MovieInfo.class))
+                .transform(Deadline.enforce("movieInfo.byId.rest")) // bounds the hedge too
+                .transform(metrics.stage("movieInfo.byId.rest"));
     }
 
     public Flux<MovieInfo> retrieveMoviesFlux() {
@@ -1,50 +1,118 @@
 package com.learnreactiveprogramming.service;
 
 import com.learnreactiveprogramming.domain.Movie;
+import com.learnreactiveprogramming.domain.MovieHeader;
 import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.domain.MovieStreamEvent;
 import com.learnreactiveprogramming.domain.Revenue;
+import com.learnreactiveprogramming.domain.Review;
+import com.learnreactiveprogramming.domain.ReviewBatch;
+import com.learnreactiveprogramming.domain.ReviewChunk;
+import com.learnreactiveprogramming.exception.DeadlineExceededException;
 import com.learnreactiveprogramming.exception.MovieException;
 import com.learnreactiveprogramming.exception.NetworkException;
 import com.learnreactiveprogramming.exception.ServiceException;
-import lombok.AllArgsConstructor;
+import com.learnreactiveprogramming.util.Deadline;
+import com.learnreactiveprogramming.util.PipelineMetrics;
+import com.learnreactiveprogramming.util.ReviewStatsCollector;
+import com.learnreactiveprogramming.util.SingleFlight;
+import com.learnreactiveprogramming.util.SingleFlightStats;
 import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 import reactor.util.retry.Retry;
+import reactor.util.retry.RetryBackoffSpec;
 
 import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
-@AllArgsConstructor
 public class MovieReactiveService {
 
-    private ReviewService reviewService;
-    private MovieInfoService movieInfoService;
-    private RevenueService revenueService;
+    private static final Duration REPEAT_PAUSE = Duration.ofMillis(1L);
+
+    private final ReviewService reviewService;
+    private final MovieInfoService movieInfoService;
+    private final RevenueService revenueService;
+    private final MovieAssemblyOptions options;
+    private final PipelineMetrics metrics;
+    private final ReviewBatchLoader reviewBatchLoader;
+    private final SingleFlight<Long, Movie> movieByIdFlights = new SingleFlight<>();
+    private final Map<Long, Movie> warmMovies = new ConcurrentHashMap<>(); // from the last snapshot, served until the first refresh completed
+
+    public MovieReactiveService(ReviewService reviewService, MovieInfoService movieInfoService, RevenueService revenueService) {
+        this(reviewService, movieInfoService, revenueService, MovieAssemblyOptions.defaults());
+    }
+
+    public MovieReactiveService(ReviewService reviewService, MovieInfoService movieInfoService, RevenueService revenueService,
+                                MovieAssemblyOptions options) {
+        this.reviewService = reviewService;
+        this.movieInfoService = movieInfoService;
+        this.revenueService = revenueService;
+        this.options = options;
+        this.metrics = options.getMetrics();
+        this.reviewBatchLoader = new ReviewBatchLoader(movieInfoIds -> this.reviewService.getReviewsForMovies(movieInfoIds),
+                options.getReviewBatchSize(), options.getReviewBatchWindow(), Schedulers.parallel());
+    }
 
     public Flux<Movie> getMoviesUsingRest() {
-        return movieInfoService.getAllMovieInfo_restClient()
-                .flatMap(this::buildMovie)
-                .doOnError(throwable -> log.error("Movie error", throwable))
-                .onErrorMap(MovieException::new)
-                .retry(5L)
-                .log();
+        Flux<MovieInfo> movieInfos = options.isStreamingCatalog()
+                ? movieInfoService.getAllMovieInfo_stream()
+                : movieInfoService.getAllMovieInfo_restClient();
+        return assembleWithRetry(movieInfos, this::buildMovie)
+                .transform(metrics.stage("movies.rest"));
+    }
+
+    public Flux<Movie> getMoviesUsingRest(Duration deadline) {
+        return getMoviesUsingRest()
+                .transform(Deadline.enforce("movies.rest"))
+                .contextWrite(Deadline.within(deadline)); // every hop below times out with what is left
+    }
+
+    public Flux<Movie> getMoviesWithReviewBatchUsingRest() {
+        Flux<List<MovieInfo>> batches = movieInfoService.getAllMovieInfo_restClient()
+                .buffer(options.getReviewBatchSize());
+        return retryCatalog(assemble(batches, this::buildMovies))
+                .transform(metrics.stage("movies.rest.reviewBatch"));
     }
 
     public Flux<Movie> getAllMovies() {
+        return assembleWithRetry(movieInfoService.retrieveMoviesFlux(), this::getMovie)
+                .transform(metrics.stage("movies.all"));
+    }
+
+    public Flux<Movie> getAllMoviesParallel() {
+        Comparator<Tuple2<Long, Movie>> bySequence = Comparator.comparing(Tuple2::getT1);
         return movieInfoService.retrieveMoviesFlux()
-                .flatMap(this::getMovie)
+                .index() // sequence number to restore the source order after the rails
+                .parallel(options.getParallelism())
+                .runOn(Schedulers.parallel())
+                .concatMap(sequenced -> getMovieWithRevenue(sequenced.getT2()) // concatMap keeps every rail in sequence order
+                        .map(movie -> Tuples.of(sequenced.getT1(), movie)))
+                .ordered(bySequence) // merges the rails by always taking the lowest sequence number
+                .map(Tuple2::getT2)
                 .doOnError(throwable -> log.error("Movie error", throwable))
                 .onErrorMap(MovieException::new)
-                .retry(5L)
-                .log();
+                .transform(metrics.stage("movies.all.parallel"));
     }
 
     public Flux<Movie> getAllMoviesRetryWhen() {
-        return movieInfoService.retrieveMoviesFlux()
-                .flatMap(this::getMovie)
+        return assemble(movieInfoService.retrieveMoviesFlux(), this::getMovie)
                 .doOnError(throwable -> log.error("Movie error", throwable))
                 .onErrorMap(throwable -> {
                     if (throwable instanceof NetworkException) {
@@ -55,29 +123,124 @@ public class MovieReactiveService {
                 .retryWhen(Retry.backoff(5L, Duration.ofMillis(100L))
                         .filter(throwable -> throwable instanceof MovieException) // use this if you want to specify which of the exception we want to propagate
                         .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> Exceptions.propagate(retrySignal.failure()))) // if we don't do this, we get Exhausted Exception instead of Movie exception or any specified exceptions
-                .log();
+                .transform(metrics.stage("movies.all.retryWhen"));
     }
 
     public Flux<Movie> getAllMoviesRepeat() {
-        return movieInfoService.retrieveMoviesFlux()
-                .flatMap(this::getMovie)
-                .doOnError(throwable -> log.error("Movie error", throwable))
-                .onErrorMap(throwable -> {
-                    if (throwable instanceof NetworkException) {
-                        throw new MovieException(throwable);
-                    }
-                    throw new ServiceException(throwable);
-                })
-                .retryWhen(Retry.backoff(5L, Duration.ofMillis(100L))
-                        .filter(throwable -> throwable instanceof MovieException)
-                        .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> Exceptions.propagate(retrySignal.failure())))
+        return catalogPass(Schedulers.parallel())
                 .repeat()
-                .log();
+                .transform(metrics.stage("movies.all.repeat"));
+    }
+
+    public Flux<Movie> getAllMoviesRepeat(BackpressurePolicy backpressurePolicy) {
+        return Flux.using(() -> Schedulers.newSingle("movies-repeat"), // the endless producer gets its own thread, a parallel worker would starve the timers sharing it
+                        scheduler -> catalogPass(scheduler)
+                                .repeatWhen(passes -> passes.concatMap(pass -> Mono.delay(REPEAT_PAUSE, scheduler))) // yields between passes and resubscribes on the same thread
+                                .subscribeOn(scheduler),
+                        Scheduler::dispose)
+                .transform(metrics.stage("movies.all.repeat"))
+                .transform(backpressurePolicy::apply);
     }
 
     public Flux<Movie> getAllMoviesRepeat(long numberOfRepeats) {
+        return catalogPass(Schedulers.parallel())
+                .repeat(numberOfRepeats)
+                .transform(metrics.stage("movies.all.repeat"));
+    }
+
+    public Flux<Movie> getAllMoviesBlockingCatalog() {
+        Flux<MovieInfo> movieInfos = Mono.fromCallable(movieInfoService::movieList)
+                .subscribeOn(options.getBlockingScheduler().scheduler())
+                .flatMapIterable(movieInfoList -> movieInfoList);
+        return assembleWithRetry(movieInfos, this::getMovie)
+                .transform(metrics.stage("movies.all.blocking"));
+    }
+
+    public Mono<Movie> getMovieByIdBlocking(Long id) {
+        return Mono.fromCallable(() -> movieInfoService.retrieveMovieUsingId(id))
+                .subscribeOn(options.getBlockingScheduler().scheduler())
+                .flatMap(this::getMovie)
+                .transform(metrics.stage("movie.byId.blocking"));
+    }
+
+    public Flux<MovieStreamEvent> getAllMoviesStream() {
         return movieInfoService.retrieveMoviesFlux()
+                .concatMap(movieInfo -> streamMovie(movieInfo, reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId()))) // one movie at a time, its header starts it
+                .transform(metrics.stage("movies.all.stream"));
+    }
+
+    public Flux<MovieStreamEvent> getMovieStreamUsingRest(Long id) {
+        return movieInfoService.getMovieInfo(id)
+                .flatMapMany(movieInfo -> streamMovie(movieInfo, reviewService.getReviews(movieInfo.getMovieInfoId())))
+                .transform(metrics.stage("movie.byId.rest.stream"));
+    }
+
+    public Mono<Movie> getMovieById(Long id) {
+        return movieInfoService.retrieveMovieInfoMonoUsingId(id)
+                .flatMap(this::getMovie)
+                .transform(metrics.stage("movie.byId"));
+    }
+
+    public Mono<Movie> getMovieByIdUsingRest(Long id) {
+        return Mono.defer(() -> Mono.justOrEmpty(warmMovies.get(id)))
+                .switchIfEmpty(movieByIdFlights.execute(id, () -> movieInfoService.getMovieInfo(id) // concurrent calls for a trending movie share one assembly
+                        .flatMap(this::buildMovie)))
+                .transform(metrics.stage("movie.byId.rest"));
+    }
+
+    // serves lookups from the snapshot until refreshWarmMovies() terminates
+    public Mono<Integer> warmStart(MovieSnapshotStore snapshotStore) {
+        return snapshotStore.load()
+                .doOnNext(movies -> movies.forEach(movie -> warmMovies.put(movie.getMovie().getMovieInfoId(), movie)))
+                .map(List::size)
+                .defaultIfEmpty(0)
+                .doOnNext(count -> log.info("Serving {} movies from the snapshot until the refresh finished", count));
+    }
+
+    public Mono<Void> refreshWarmMovies() {
+        return getMoviesUsingRest()
+                .doOnNext(movie -> warmMovies.replace(movie.getMovie().getMovieInfoId(), movie))
+                .then()
+                .timeout(options.getWarmSnapshotTtl()) // a hanging refresh does not keep the snapshot alive
+                .doOnError(throwable -> log.warn("Refresh after warm start failed, dropping the snapshot", throwable))
+                .doOnTerminate(warmMovies::clear) // caught up or failed, lookups go to the services again
+                .doOnCancel(warmMovies::clear);
+    }
+
+    public Disposable scheduleSnapshots(MovieSnapshotStore snapshotStore, Duration period) {
+        return snapshotStore.scheduleSnapshots(this::getMoviesUsingRest, period);
+    }
+
+    public Mono<Movie> getMovieByIdUsingRest(Long id, Duration deadline) {
+        return getMovieByIdUsingRest(id)
+                .transform(Deadline.enforce("movie.byId.rest"))
+                .contextWrite(Deadline.within(deadline));
+    }
+
+    public SingleFlightStats getMovieByIdCoalescingStats() {
+        return movieByIdFlights.stats();
+    }
+
+    public Mono<Movie> getMovieByIdWithRevenue(Long id) {
+        Mono<Optional<Revenue>> revenueMono = withinBudget(revenueService.getRevenueReactive(id), options.getRevenueBudget(), "revenue", id); // blocking call runs in the revenue bulkhead
+        return movieInfoService.retrieveMovieInfoMonoUsingId(id)
                 .flatMap(this::getMovie)
+                .zipWith(revenueMono, ((movie, revenue) -> {
+                    movie.setRevenue(revenue.orElse(null));
+                    movie.setComplete(movie.isComplete() && revenue.isPresent());
+                    return movie;
+                }))
+                .transform(metrics.stage("movie.byId.revenue"));
+    }
+
+    public Mono<Movie> getMovieByIdWithRevenue(Long id, Duration deadline) {
+        return getMovieByIdWithRevenue(id)
+                .transform(Deadline.enforce("movie.byId.revenue")) // cancels the review and revenue calls still running
+                .contextWrite(Deadline.within(deadline));
+    }
+
+    private Flux<Movie> catalogPass(Scheduler retryScheduler) {
+        return assemble(movieInfoService.retrieveMoviesFlux(), this::getMovie)
                 .doOnError(throwable -> log.error("Movie error", throwable))
                 .onErrorMap(throwable -> {
                     if (throwable instanceof NetworkException) {
@@ -87,47 +250,123 @@ public class MovieReactiveService {
                 })
                 .retryWhen(Retry.backoff(5L, Duration.ofMillis(100L))
                         .filter(throwable -> throwable instanceof MovieException)
-                        .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> Exceptions.propagate(retrySignal.failure())))
-                .repeat(numberOfRepeats)
-                .log();
+                        .scheduler(retryScheduler) // a retry resubscribes on the thread of its backoff timer
+                        .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> Exceptions.propagate(retrySignal.failure())));
     }
 
-    public Mono<Movie> getMovieById(Long id) {
-        return movieInfoService.retrieveMovieInfoMonoUsingId(id)
-                .flatMap(this::getMovie)
-                .log();
+    private Flux<Movie> assembleWithRetry(Flux<MovieInfo> movieInfos, Function<MovieInfo, Mono<Movie>> assembler) {
+        if (options.isResumableRetry()) {
+            return assembleResumable(movieInfos, assembler)
+                    .doOnError(throwable -> log.error("Movie error", throwable))
+                    .onErrorMap(MovieException::new);
+        }
+        return retryCatalog(assemble(movieInfos, assembler));
     }
 
-    public Mono<Movie> getMovieByIdUsingRest(Long id) {
-        return movieInfoService.getMovieInfo(id)
-                .flatMap(this::buildMovie)
-                .log();
+    private Flux<Movie> retryCatalog(Flux<Movie> movies) {
+        return movies
+                .doOnError(throwable -> log.error("Movie error", throwable))
+                .onErrorMap(MovieException::new)
+                .retry(options.getMaxRetries()); // re-subscribes the whole catalog
     }
 
-    public Mono<Movie> getMovieByIdWithRevenue(Long id) {
-        Mono<Revenue> revenueMono = Mono.fromCallable(() -> revenueService.getRevenue(id))
-                .subscribeOn(Schedulers.boundedElastic()); // use this when making blocking calls
-        return movieInfoService.retrieveMovieInfoMonoUsingId(id)
-                .flatMap(this::getMovie)
-                .zipWith(revenueMono, ((movie, revenue) -> {
-                    movie.setRevenue(revenue);
+    private Flux<Movie> assembleResumable(Flux<MovieInfo> movieInfos, Function<MovieInfo, Mono<Movie>> assembler) {
+        return Flux.defer(() -> {
+            Set<Long> handedOver = ConcurrentHashMap.newKeySet(); // movie infos already assembled or being assembled
+            Flux<MovieInfo> resumedMovieInfos = movieInfos
+                    .filter(movieInfo -> handedOver.add(movieInfo.getMovieInfoId())) // a refetch may come back reordered or without the last movie, skip by id rather than by position
+                    .retryWhen(retrySpec());
+            return assemble(resumedMovieInfos, movieInfo -> Mono.defer(() -> assembler.apply(movieInfo))
+                    .retryWhen(retrySpec())); // a failed review lookup only retries that movie
+        });
+    }
+
+    private RetryBackoffSpec retrySpec() {
+        return Retry.backoff(options.getMaxRetries(), options.getRetryBackoff())
+                .jitter(options.getRetryJitter())
+                .transientErrors(true) // maxRetries counts consecutive failures, progress in between resets it
+                .onRetryExhaustedThrow((retryBackoffSpec, retrySignal) -> Exceptions.propagate(retrySignal.failure()));
+    }
+
+    private <T> Flux<Movie> assemble(Flux<T> sources, Function<T, ? extends Publisher<Movie>> assembler) {
+        if (options.isOrdered()) {
+            return sources.flatMapSequential(assembler, options.getConcurrency(), options.getPrefetch());
+        }
+        return sources.flatMap(assembler, options.getConcurrency(), options.getPrefetch());
+    }
+
+    private Flux<Movie> buildMovies(List<MovieInfo> movieInfos) { // one review request for the whole batch
+        List<Long> movieInfoIds = movieInfos.stream().map(MovieInfo::getMovieInfoId).collect(Collectors.toList());
+        return reviewService.getReviewBatch(movieInfoIds)
+                .flatMapIterable(reviewBatch -> {
+                    Map<Long, ReviewBatch> reviewsByMovie = reviewBatch.splitByMovie();
+                    return movieInfos.stream()
+                            .map(movieInfo -> new Movie(movieInfo, reviewsByMovie.getOrDefault(movieInfo.getMovieInfoId(), ReviewBatch.empty())))
+                            .collect(Collectors.toList());
+                });
+    }
+
+    private Mono<Movie> getMovieWithRevenue(MovieInfo movieInfo) {
+        return getMovie(movieInfo)
+                .zipWith(withinBudget(revenueService.getRevenueReactive(movieInfo.getMovieInfoId()), options.getRevenueBudget(),
+                        "revenue", movieInfo.getMovieInfoId()), (movie, revenue) -> {
+                    movie.setRevenue(revenue.orElse(null));
+                    movie.setComplete(movie.isComplete() && revenue.isPresent());
                     return movie;
-                }))
-                .log();
+                });
+    }
+
+    private Flux<MovieStreamEvent> streamMovie(MovieInfo movieInfo, Flux<Review> reviews) {
+        Flux<MovieStreamEvent> reviewChunks = reviews
+                .bufferTimeout(options.getReviewChunkSize(), options.getReviewChunkWindow()) // bounded by size and by time, whichever comes first
+                .onBackpressureBuffer(options.getReviewChunkBacklog()) // bufferTimeout errors when the window closes without demand, a slow writer gets a few chunks of slack
+                .index()
+                .map(chunk -> new ReviewChunk(movieInfo.getMovieInfoId(), chunk.getT1(), chunk.getT2()));
+        return Flux.<MovieStreamEvent>just(new MovieHeader(movieInfo)) // sent before the first review is fetched
+                .concatWith(reviewChunks);
     }
 
     private Mono<Movie> getMovie(MovieInfo movieInfo) {
-        return reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId())
-                .collectList()
-                .map(reviews -> new Movie(movieInfo, reviews))
-                .log();
+        if (options.isStatsOnly()) {
+            return ReviewStatsCollector.collect(reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId())) // reviews are never held in a list
+                    .map(reviewStats -> new Movie(movieInfo, reviewStats))
+                    .transform(metrics.stage("movie.assembly.stats"));
+        }
+        return withinBudget(reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId()).collectList(), options.getReviewBudget(),
+                "reviews", movieInfo.getMovieInfoId())
+                .map(reviews -> withCompleteness(new Movie(movieInfo, reviews.orElse(List.of())), reviews))
+                .transform(metrics.stage("movie.assembly"));
     }
 
     private Mono<Movie> buildMovie(MovieInfo movieInfo) {
-        return reviewService.getReviews(movieInfo.getMovieInfoId())
-                .collectList()
-                .map(reviews -> new Movie(movieInfo, reviews))
-                .log();
+        if (options.isStatsOnly()) {
+            return ReviewStatsCollector.collect(reviewService.getReviews(movieInfo.getMovieInfoId())) // streamed, the batch loader would buffer every review
+                    .map(reviewStats -> new Movie(movieInfo, reviewStats))
+                    .transform(metrics.stage("movie.assembly.rest.stats"));
+        }
+        return withinBudget(reviewBatchLoader.load(movieInfo.getMovieInfoId()), options.getReviewBudget(), // one review request per batch instead of per movie
+                "reviews", movieInfo.getMovieInfoId())
+                .map(reviews -> withCompleteness(new Movie(movieInfo, reviews.orElse(List.of())), reviews))
+                .transform(metrics.stage("movie.assembly.rest"));
+    }
+
+    // without a budget the component is required, with one it is dropped (and cancelled) once it runs late, other errors still reach the retries
+    private <T> Mono<Optional<T>> withinBudget(Mono<T> component, Duration budget, String name, Long movieInfoId) {
+        Mono<Optional<T>> present = component.map(Optional::of);
+        if (budget == null) {
+            return present;
+        }
+        return present
+                .timeout(budget)
+                .onErrorResume(throwable -> throwable instanceof TimeoutException || throwable instanceof DeadlineExceededException, throwable -> {
+                    log.warn("Leaving {} out of movie {}: {}", name, movieInfoId, throwable.toString());
+                    return Mono.just(Optional.empty());
+                });
+    }
+
+    private static Movie withCompleteness(Movie movie, Optional<?> component) {
+        movie.setComplete(component.isPresent());
+        return movie;
     }
 
 }
@@ -0,0 +1,259 @@
+package com.learnreactiveprogramming.service;
+
+import com.learnreactiveprogramming.domain.Movie;
+import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.domain.Revenue;
+import com.learnreactiveprogramming.domain.Review;
+import com.learnreactiveprogramming.domain.ReviewBatch;
+import com.learnreactiveprogramming.domain.ReviewStats;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+// assembled movies in a compact binary file, written atomically and memory mapped when read back
+@Slf4j
+public class MovieSnapshotStore {
+
+    private static final int MAGIC = 0x4D4F5653; // "MOVS"
+    private static final int VERSION = 1;
+
+    private static final byte NO_REVIEWS = 0;
+    private static final byte REVIEW_LIST = 1;
+    private static final byte REVIEW_BATCH = 2;
+
+    private final Path file;
+
+    public MovieSnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public Mono<Void> save(Collection<Movie> movies) {
+        return Mono.<Void>fromCallable(() -> {
+                    write(movies);
+                    return null;
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<List<Movie>> load() { // empty when there is no snapshot yet
+        return Mono.fromCallable(() -> Files.exists(file) ? read() : null)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Disposable scheduleSnapshots(Supplier<Flux<Movie>> movies, Duration period) {
+        return Flux.interval(period, period)
+                .onBackpressureDrop() // a slow snapshot skips the next tick instead of queueing it
+                .flatMap(tick -> movies.get()
+                        .collectList()
+                        .flatMap(this::save)
+                        .doOnSuccess(done -> log.info("Movie snapshot written to {}", file))
+                        .onErrorResume(throwable -> {
+                            log.warn("Movie snapshot failed, keeping the previous one", throwable);
+                            return Mono.empty();
+                        }), 1) // one snapshot at a time, the next tick is only requested once it finished
+                .subscribe();
+    }
+
+    void write(Collection<Movie> movies) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(movies.size());
+            for (Movie movie : movies) {
+                writeMovie(out, movie);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE); // readers never see a half written file
+    }
+
+    List<Movie> read() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Movie snapshot " + file + " is too large to map, " + size + " bytes");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size); // decoded straight from the page cache, no byte[] copy of the file, the movies themselves end up on the heap
+            if (buffer.remaining() < 20 || buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a movie snapshot");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported movie snapshot version " + version);
+            }
+            buffer.getLong(); // written at
+            int count = buffer.getInt();
+            List<Movie> movies = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                movies.add(readMovie(buffer));
+            }
+            return movies;
+        }
+    }
+
+    private static void writeMovie(DataOutputStream out, Movie movie) throws IOException {
+        MovieInfo movieInfo = movie.getMovie();
+        out.writeBoolean(movieInfo != null);
+        if (movieInfo != null) {
+            writeNullableLong(out, movieInfo.getMovieInfoId());
+            writeString(out, movieInfo.getName());
+            out.writeBoolean(movieInfo.getYear() != null);
+            if (movieInfo.getYear() != null) {
+                out.writeInt(movieInfo.getYear());
+            }
+            List<String> cast = movieInfo.getCast();
+            out.writeInt(cast == null ? -1 : cast.size());
+            if (cast != null) {
+                for (String member : cast) {
+                    writeString(out, member);
+                }
+            }
+            writeNullableLong(out, movieInfo.getRelease_date() == null ? null : movieInfo.getRelease_date().toEpochDay());
+        }
+
+        List<Review> reviews = movie.getReviewList() != null
+                ? movie.getReviewList()
+                : movie.getReviewBatch() != null ? movie.getReviewBatch().toReviews() : null;
+        out.writeByte(movie.getReviewList() != null ? REVIEW_LIST : movie.getReviewBatch() != null ? REVIEW_BATCH : NO_REVIEWS);
+        if (reviews != null) {
+            out.writeInt(reviews.size());
+            for (Review review : reviews) {
+                writeNullableLong(out, review.getReviewId());
+                writeNullableLong(out, review.getMovieInfoId());
+                writeString(out, review.getComment());
+                out.writeDouble(review.getRating() == null ? Double.NaN : review.getRating());
+            }
+        }
+
+        Revenue revenue = movie.getRevenue();
+        out.writeBoolean(revenue != null);
+        if (revenue != null) {
+            writeNullableLong(out, revenue.getMovieInfoId());
+            out.writeDouble(revenue.getBudget());
+            out.writeDouble(revenue.getBoxOffice());
+        }
+
+        ReviewStats reviewStats = movie.getReviewStats();
+        out.writeBoolean(reviewStats != null);
+        if (reviewStats != null) {
+            out.writeLong(reviewStats.getCount());
+            out.writeLong(reviewStats.getRatedCount());
+            out.writeDouble(reviewStats.getMean());
+            out.writeDouble(reviewStats.getMin());
+            out.writeDouble(reviewStats.getMax());
+            out.writeDouble(reviewStats.getP50());
+            out.writeDouble(reviewStats.getP90());
+        }
+        out.writeBoolean(movie.isComplete());
+    }
+
+    private static Movie readMovie(ByteBuffer buffer) {
+        Movie movie = new Movie();
+        if (readBoolean(buffer)) {
+            MovieInfo movieInfo = new MovieInfo();
+            movieInfo.setMovieInfoId(readNullableLong(buffer));
+            movieInfo.setName(readString(buffer));
+            movieInfo.setYear(readBoolean(buffer) ? buffer.getInt() : null);
+            int castSize = buffer.getInt();
+            if (castSize >= 0) {
+                List<String> cast = new ArrayList<>(castSize);
+                for (int i = 0; i < castSize; i++) {
+                    cast.add(readString(buffer));
+                }
+                movieInfo.setCast(cast);
+            }
+            Long releaseEpochDay = readNullableLong(buffer);
+            movieInfo.setRelease_date(releaseEpochDay == null ? null : LocalDate.ofEpochDay(releaseEpochDay));
+            movie.setMovie(movieInfo);
+        }
+
+        byte reviewRepresentation = buffer.get();
+        if (reviewRepresentation != NO_REVIEWS) {
+            int reviewCount = buffer.getInt();
+            List<Review> reviews = new ArrayList<>(reviewCount);
+            for (int i = 0; i < reviewCount; i++) {
+                Long reviewId = readNullableLong(buffer);
+                Long movieInfoId = readNullableLong(buffer);
+                String comment = readString(buffer);
+                double rating = buffer.getDouble();
+                reviews.add(new Review(reviewId, movieInfoId, comment, Double.isNaN(rating) ? null : rating));
+            }
+            if (reviewRepresentation == REVIEW_BATCH) {
+                movie.setReviewBatch(ReviewBatch.of(reviews));
+            } else {
+                movie.setReviewList(reviews);
+            }
+        }
+
+        if (readBoolean(buffer)) {
+            movie.setRevenue(new Revenue(readNullableLong(buffer), buffer.getDouble(), buffer.getDouble()));
+        }
+
+        if (readBoolean(buffer)) {
+            movie.setReviewStats(new ReviewStats(buffer.getLong(), buffer.getLong(), buffer.getDouble(), buffer.getDouble(),
+                    buffer.getDouble(), buffer.getDouble(), buffer.getDouble()));
+        }
+        movie.setComplete(readBoolean(buffer));
+        return movie;
+    }
+
+    private static void writeNullableLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static boolean readBoolean(ByteBuffer buffer) {
+        return buffer.get() != 0;
+    }
+
+    private static Long readNullableLong(ByteBuffer buffer) {
+        return readBoolean(buffer) ? buffer.getLong() : null;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -1,11 +1,28 @@
 package com.learnreactiveprogramming.service;
 
 import com.learnreactiveprogramming.domain.Revenue;
+import com.learnreactiveprogramming.util.Bulkhead;
+import com.learnreactiveprogramming.util.Deadline;
+import reactor.core.publisher.Mono;
 
 import static com.learnreactiveprogramming.util.CommonUtil.delay;
 
 public class RevenueService {
 
+    private static final int DEFAULT_MAX_CONCURRENT_CALLS = 10;
+    private static final int DEFAULT_MAX_QUEUE_DEPTH = 100;
+    private static final Bulkhead DEFAULT_BULKHEAD = new Bulkhead("revenue", DEFAULT_MAX_CONCURRENT_CALLS, DEFAULT_MAX_QUEUE_DEPTH); // shared, a service per test or request does not add threads
+
+    private final Bulkhead bulkhead;
+
+    public RevenueService() {
+        this(DEFAULT_BULKHEAD);
+    }
+
+    public RevenueService(Bulkhead bulkhead) {
+        this.bulkhead = bulkhead;
+    }
+
     public Revenue getRevenue(Long movieId){
         delay(1000); // simulating a network call ( DB or Rest call)
         return Revenue.builder()
@@ -15,4 +32,9 @@ public class RevenueService {
                 .build();
 
     }
+
+    public Mono<Revenue> getRevenueReactive(Long movieId) {
+        return bulkhead.call(() -> getRevenue(movieId)) // rejected right away once the bulkhead queue is full
+                .transform(Deadline.enforce("revenue"));
+    }
 }
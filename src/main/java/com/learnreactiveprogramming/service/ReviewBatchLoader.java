@@ -0,0 +1,195 @@
+package com.learnreactiveprogramming.service;
+
+import com.learnreactiveprogramming.domain.Review;
+import com.learnreactiveprogramming.util.Deadline;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+public class ReviewBatchLoader {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofMillis(10);
+
+    private final Function<Collection<Long>, Flux<Review>> batchFunction;
+    private final int maxBatchSize;
+    private final Duration maxWait;
+    private final Scheduler scheduler;
+
+    private final Queue<PendingLoad> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    public ReviewBatchLoader(Function<Collection<Long>, Flux<Review>> batchFunction) {
+        this(batchFunction, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_WAIT, Schedulers.parallel());
+    }
+
+    public ReviewBatchLoader(Function<Collection<Long>, Flux<Review>> batchFunction, int maxBatchSize,
+                             Duration maxWait, Scheduler scheduler) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive, was " + maxBatchSize);
+        }
+        this.batchFunction = batchFunction;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWait = maxWait;
+        this.scheduler = scheduler;
+    }
+
+    public Mono<List<Review>> load(Long movieInfoId) { // lookups within maxWait (or up to maxBatchSize) share one call
+        return Mono.deferContextual(context -> Mono.create(sink -> {
+            loads.increment();
+            PendingLoad load = new PendingLoad(movieInfoId, Deadline.current(context).orElse(null), sink);
+            sink.onCancel(load::cancel); // deadline, budget or hedge loser, its id is not worth fetching anymore
+            pending.offer(load);
+            if (pendingCount.incrementAndGet() >= maxBatchSize) {
+                flush(); // batch is full, no reason to wait for the window
+            } else if (flushScheduled.compareAndSet(false, true)) {
+                scheduler.schedule(this::onWindowElapsed, maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }));
+    }
+
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    private void onWindowElapsed() {
+        flushScheduled.set(false);
+        flush();
+    }
+
+    private void flush() {
+        Map<Long, List<PendingLoad>> batch = new LinkedHashMap<>();
+        PendingLoad load;
+        while ((load = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            if (load.cancelled) {
+                continue;
+            }
+            batch.computeIfAbsent(load.movieInfoId, id -> new ArrayList<>()).add(load);
+            if (batch.size() == maxBatchSize) {
+                dispatch(batch);
+                batch = new LinkedHashMap<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(Map<Long, List<PendingLoad>> batch) {
+        DispatchedBatch dispatched = new DispatchedBatch();
+        batch.values().forEach(loads -> loads.forEach(load -> load.join(dispatched)));
+        if (dispatched.waiters.decrementAndGet() == 0) { // drops the hold of the dispatch itself
+            return; // everyone left while the batch was assembled
+        }
+        batches.increment();
+        List<Long> movieInfoIds = new ArrayList<>(batch.keySet());
+        Deadline deadline = batchDeadline(batch.values());
+        Function<Context, Context> withDeadline = deadline != null ? Deadline.at(deadline) : Function.identity();
+        dispatched.request.update(Flux.defer(() -> batchFunction.apply(movieInfoIds))
+                .collect(Collectors.groupingBy(Review::getMovieInfoId))
+                .contextWrite(withDeadline) // subscribed on the loader's timer, not in a caller's context
+                .subscribe(reviewsById -> batch.forEach((movieInfoId, loads) -> {
+                            List<Review> reviews = reviewsById.getOrDefault(movieInfoId, List.of());
+                            loads.forEach(load -> load.sink.success(reviews));
+                        }),
+                        throwable -> {
+                            log.error("Review batch of {} movies failed", movieInfoIds.size(), throwable);
+                            batch.values().forEach(loads -> loads.forEach(load -> load.sink.error(throwable)));
+                        }));
+    }
+
+    // the latest deadline of the waiters, the reviews are of no use to anyone after it, none as soon as one waiter has no deadline;
+    // the earliest would fail the waiters that still have time left, they are cut off by their own deadline anyway
+    private static Deadline batchDeadline(Collection<List<PendingLoad>> batch) {
+        Deadline latest = null;
+        for (List<PendingLoad> loads : batch) {
+            for (PendingLoad load : loads) {
+                if (load.deadline == null) {
+                    return null;
+                }
+                if (latest == null || latest.isBefore(load.deadline)) {
+                    latest = load.deadline;
+                }
+            }
+        }
+        return latest;
+    }
+
+    private static final class DispatchedBatch {
+        private final AtomicInteger waiters = new AtomicInteger(1); // held by dispatch until every load joined, so early leavers cannot cancel it
+        private final Disposable.Swap request = Disposables.swap(); // disposing it before the request started cancels it on start
+
+        private void leave() {
+            if (waiters.decrementAndGet() == 0) {
+                request.dispose(); // nobody is waiting for the reviews anymore
+            }
+        }
+    }
+
+    private static final class PendingLoad {
+        private final Long movieInfoId;
+        private final Deadline deadline; // of the caller, null when it has none
+        private final MonoSink<List<Review>> sink;
+        private final AtomicBoolean left = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile DispatchedBatch batch;
+
+        private PendingLoad(Long movieInfoId, Deadline deadline, MonoSink<List<Review>> sink) {
+            this.movieInfoId = movieInfoId;
+            this.deadline = deadline;
+            this.sink = sink;
+        }
+
+        private void join(DispatchedBatch dispatched) {
+            dispatched.waiters.incrementAndGet();
+            batch = dispatched;
+            if (cancelled) { // cancelled while the batch was assembled
+                leave();
+            }
+        }
+
+        private void cancel() {
+            cancelled = true;
+            if (batch != null) {
+                leave();
+            }
+        }
+
+        private void leave() {
+            if (left.compareAndSet(false, true)) {
+                batch.leave();
+            }
+        }
+    }
+
+}
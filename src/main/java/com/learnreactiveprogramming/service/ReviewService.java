@@ -1,29 +1,74 @@
 package com.learnreactiveprogramming.service;
 
 import com.learnreactiveprogramming.domain.Review;
+import com.learnreactiveprogramming.domain.ReviewBatch;
+import com.learnreactiveprogramming.util.Deadline;
+import com.learnreactiveprogramming.util.HedgingPolicy;
+import com.learnreactiveprogramming.util.PipelineMetrics;
 import lombok.AllArgsConstructor;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.util.Collection;
 import java.util.List;
 
 @AllArgsConstructor
 public class ReviewService {
 
     private WebClient webClient;
+    private HedgingPolicy hedgingPolicy;
+    private PipelineMetrics metrics;
+
+    public ReviewService(WebClient webClient) {
+        this(webClient, HedgingPolicy.disabled());
+    }
+
+    public ReviewService(WebClient webClient, HedgingPolicy hedgingPolicy) {
+        this(webClient, hedgingPolicy, PipelineMetrics.shared());
+    }
 
     public Flux<Review> getReviews(Long movieInfoId) {
         String uri = UriComponentsBuilder.fromUriString("/v1/reviews")
                 .queryParam("movieInfoId", movieInfoId)
                 .buildAndExpand()
                 .toUriString();
+        Flux<Review> reviews = hedgingPolicy.isEnabled()
+                ? hedgingPolicy.hedge(() -> fetchReviews(uri).collectList()).flatMapIterable(reviewList -> reviewList) // hedging needs the whole response
+                : fetchReviews(uri);
+        return reviews
+                .transform(Deadline.enforce("reviews.rest"))
+                .transform(metrics.stage("reviews.rest"));
+    }
+
+    public Flux<Review> getReviewsForMovies(Collection<Long> movieInfoIds) {
+        if (movieInfoIds.isEmpty()) {
+            return Flux.empty();
+        }
+        if (movieInfoIds.size() == 1) {
+            return getReviews(movieInfoIds.iterator().next()); // no need to pay for the batch endpoint
+        }
+        String uri = UriComponentsBuilder.fromUriString("/v1/reviews")
+                .queryParam("movieInfoId", movieInfoIds)
+                .buildAndExpand()
+                .toUriString();
+        return fetchReviews(uri)
+                .transform(Deadline.enforce("reviews.batch.rest"))
+                .transform(metrics.stage("reviews.batch.rest"));
+    }
+
+    public Mono<ReviewBatch> getReviewBatch(Collection<Long> movieInfoIds) {
+        return getReviewsForMovies(movieInfoIds)
+                .collect(() -> ReviewBatch.builder(movieInfoIds.size() * 4), ReviewBatch.Builder::add) // every review becomes a row, the objects are short lived
+                .map(ReviewBatch.Builder::build);
+    }
+
+    private Flux<Review> fetchReviews(String uri) {
         return webClient.get()
                 .uri(uri)
                 .retrieve()
-                .bodyToFlux(Review.class)
-                .map(review -> review)
-                .log();
+                .bodyToFlux(Review.class);
     }
 
     public List<Review> retrieveReviews(long movieInfoId) {
@@ -31,6 +76,10 @@ public class ReviewService {
                 new Review(2L, movieInfoId, "Excellent Movie", 9.0));
     }
 
+    public ReviewBatch retrieveReviewBatch(long movieInfoId) {
+        return ReviewBatch.of(retrieveReviews(movieInfoId));
+    }
+
     public Flux<Review> retrieveReviewsFlux(long movieInfoId) {
         var reviewsList = List.of(new Review(1L, movieInfoId, "Awesome Movie", 8.9),
                 new Review(2L, movieInfoId, "Excellent Movie", 9.0));
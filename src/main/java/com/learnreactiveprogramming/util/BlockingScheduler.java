@@ -0,0 +1,50 @@
+package com.learnreactiveprogramming.util;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Slf4j
+public enum BlockingScheduler {
+
+    BOUNDED_ELASTIC { // platform threads, capped at 10 x cores, the rest waits in the queue
+        @Override
+        public Scheduler scheduler() {
+            return Schedulers.boundedElastic();
+        }
+    },
+    VIRTUAL_THREADS { // one virtual thread per blocking call, needs Java 21
+        @Override
+        public Scheduler scheduler() {
+            return VirtualThreads.SCHEDULER;
+        }
+    };
+
+    public abstract Scheduler scheduler();
+
+    public static boolean virtualThreadsAvailable() {
+        return VirtualThreads.AVAILABLE;
+    }
+
+    private static final class VirtualThreads {
+        private static final ExecutorService EXECUTOR = newVirtualThreadPerTaskExecutor();
+        private static final boolean AVAILABLE = EXECUTOR != null;
+        private static final Scheduler SCHEDULER = AVAILABLE
+                ? Schedulers.fromExecutorService(EXECUTOR, "virtual")
+                : Schedulers.boundedElastic();
+
+        private static ExecutorService newVirtualThreadPerTaskExecutor() {
+            try {
+                // looked up reflectively so the code still compiles and runs on Java 11
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads need Java 21, this is Java {}, falling back to boundedElastic", Runtime.version());
+                return null;
+            }
+        }
+    }
+
+}
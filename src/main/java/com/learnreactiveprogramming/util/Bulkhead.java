@@ -0,0 +1,92 @@
+package com.learnreactiveprogramming.util;
+
+import com.learnreactiveprogramming.exception.BulkheadFullException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Bulkhead implements Disposable {
+
+    private static final int THREAD_TTL_SECONDS = 60;
+
+    private final String name;
+    private final int maxConcurrentCalls;
+    private final int maxQueueDepth;
+    private final Scheduler scheduler;
+    private final boolean ownsScheduler; // only the threads created here are disposed with the bulkhead
+
+    private final AtomicInteger inFlight = new AtomicInteger(); // running + queued calls
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(String name, int maxConcurrentCalls, int maxQueueDepth) {
+        this(name, maxConcurrentCalls, maxQueueDepth,
+                Schedulers.newBoundedElastic(maxConcurrentCalls, maxQueueDepth, name, THREAD_TTL_SECONDS, true), true); // dedicated daemon threads, never shared with other blocking calls
+    }
+
+    public Bulkhead(String name, int maxConcurrentCalls, int maxQueueDepth, Scheduler scheduler) {
+        this(name, maxConcurrentCalls, maxQueueDepth, scheduler, false);
+    }
+
+    private Bulkhead(String name, int maxConcurrentCalls, int maxQueueDepth, Scheduler scheduler, boolean ownsScheduler) {
+        this.name = name;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxQueueDepth = maxQueueDepth;
+        this.scheduler = scheduler;
+        this.ownsScheduler = ownsScheduler;
+    }
+
+    public <T> Mono<T> call(Callable<T> blockingCall) {
+        return Mono.defer(() -> {
+            if (inFlight.incrementAndGet() > maxConcurrentCalls + maxQueueDepth) {
+                inFlight.decrementAndGet();
+                rejected.increment();
+                return Mono.error(new BulkheadFullException("Bulkhead " + name + " is full, " + maxConcurrentCalls
+                        + " calls running and " + maxQueueDepth + " queued")); // fail fast instead of waiting in line
+            }
+            AtomicBoolean claimed = new AtomicBoolean(); // the permit goes back once, by the call that ran or by a cancel before it started
+            return Mono.fromCallable(() -> {
+                        if (!claimed.compareAndSet(false, true)) {
+                            return null; // cancelled while queued, its permit is already back
+                        }
+                        try {
+                            return blockingCall.call();
+                        } finally {
+                            inFlight.decrementAndGet(); // a cancelled call keeps its thread busy until here
+                        }
+                    })
+                    .subscribeOn(scheduler)
+                    .doFinally(signalType -> {
+                        if (claimed.compareAndSet(false, true)) {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+        });
+    }
+
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void dispose() {
+        if (ownsScheduler) {
+            scheduler.dispose();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return ownsScheduler && scheduler.isDisposed();
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.learnreactiveprogramming.util;
+
+import lombok.Value;
+
+@Value
+public class CacheStats {
+    long hitCount;
+    long missCount;
+    long evictionCount; // removed because the cache was full
+    long expirationCount; // removed because the ttl elapsed
+    int size;
+
+    public double hitRatio() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0.0 : (double) hitCount / requests; // no traffic yet is not a perfect cache
+    }
+}
@@ -0,0 +1,61 @@
+package com.learnreactiveprogramming.util;
+
+import reactor.core.publisher.Flux;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public final class CodePointFlux {
+
+    private static final String[] LATIN_1 = new String[256]; // one shared String per single byte character
+
+    static {
+        for (char c = 0; c < LATIN_1.length; c++) {
+            LATIN_1[c] = String.valueOf(c);
+        }
+    }
+
+    private CodePointFlux() {
+    }
+
+    // replacement for Flux.fromArray(text.split("")), no regex and no array, surrogate pairs stay one element
+    public static Flux<String> of(CharSequence text) {
+        if (text.length() == 0) {
+            return Flux.empty();
+        }
+        return Flux.fromIterable(() -> new CodePointIterator(text));
+    }
+
+    private static String codePointString(CharSequence text, int index, int codePoint) {
+        if (codePoint < LATIN_1.length) {
+            return LATIN_1[codePoint];
+        }
+        return text.subSequence(index, index + Character.charCount(codePoint)).toString();
+    }
+
+    private static final class CodePointIterator implements Iterator<String> {
+        private final CharSequence text;
+        private int index;
+
+        private CodePointIterator(CharSequence text) {
+            this.text = text;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < text.length();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int codePoint = Character.codePointAt(text, index);
+            String next = codePointString(text, index, codePoint);
+            index += Character.charCount(codePoint);
+            return next;
+        }
+    }
+
+}
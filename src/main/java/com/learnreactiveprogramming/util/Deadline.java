@@ -0,0 +1,91 @@
+package com.learnreactiveprogramming.util;
+
+import com.learnreactiveprogramming.exception.DeadlineExceededException;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+// absolute point in time carried in the reactor Context, every hop times out with what is left of it
+public final class Deadline {
+
+    private static final Class<Deadline> CONTEXT_KEY = Deadline.class;
+
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    // for contextWrite at the entry point, evaluated on subscribe, an earlier deadline from the caller wins
+    public static Function<Context, Context> within(Duration budget) {
+        return context -> {
+            Deadline deadline = after(budget);
+            Optional<Deadline> existing = current(context);
+            if (existing.isPresent() && existing.get().expiresAtNanos - deadline.expiresAtNanos <= 0) {
+                return context;
+            }
+            return context.put(CONTEXT_KEY, deadline);
+        };
+    }
+
+    // for contextWrite of work subscribed away from the caller's context, e.g. a batch started on a timer
+    public static Function<Context, Context> at(Deadline deadline) {
+        return context -> context.put(CONTEXT_KEY, deadline);
+    }
+
+    public static Optional<Deadline> current(ContextView context) {
+        return context.getOrEmpty(CONTEXT_KEY);
+    }
+
+    public static <T> Function<Publisher<T>, Publisher<T>> enforce(String hop) {
+        return source -> enforce(hop, source);
+    }
+
+    public Duration remaining() {
+        long remaining = expiresAtNanos - System.nanoTime();
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    public boolean isBefore(Deadline other) {
+        return expiresAtNanos - other.expiresAtNanos < 0;
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Publisher<T> enforce(String hop, Publisher<T> source) {
+        if (source instanceof Mono) {
+            Mono<T> mono = (Mono<T>) source;
+            return Mono.deferContextual(context -> current(context)
+                    .map(deadline -> deadline.isExpired()
+                            ? Mono.<T>error(deadline.exceeded(hop)) // not worth starting, nobody will use the result
+                            : mono.timeout(deadline.remaining(), Mono.error(() -> deadline.exceeded(hop)))) // cancels the hop
+                    .orElse(mono));
+        }
+        Flux<T> flux = Flux.from(source);
+        return Flux.deferContextual(context -> current(context)
+                .map(deadline -> deadline.isExpired()
+                        ? Flux.<T>error(deadline.exceeded(hop))
+                        : flux.timeout(Mono.delay(deadline.remaining()),
+                        item -> Mono.delay(deadline.remaining()), // same deadline for every element, not a per element timeout
+                        Flux.error(() -> deadline.exceeded(hop))))
+                .orElse(flux));
+    }
+
+    private DeadlineExceededException exceeded(String hop) {
+        return new DeadlineExceededException("Deadline exceeded in " + hop);
+    }
+
+}
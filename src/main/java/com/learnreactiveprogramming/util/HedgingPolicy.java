@@ -0,0 +1,106 @@
+package com.learnreactiveprogramming.util;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+public class HedgingPolicy {
+
+    private static final HedgingPolicy DISABLED = new HedgingPolicy(false, Duration.ZERO, 0.0d);
+    private static final int BUDGET_WINDOW = 1000; // requests the budget looks back on, older ones are halved away
+
+    private final boolean enabled;
+    private final Duration hedgeDelay;
+    private final double maxHedgeRatio; // hedged requests allowed per primary request
+
+    private final AtomicLong budget = new AtomicLong(); // requests in the high half, hedges in the low half, updated together
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedgesFired = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+
+    private HedgingPolicy(boolean enabled, Duration hedgeDelay, double maxHedgeRatio) {
+        this.enabled = enabled;
+        this.hedgeDelay = hedgeDelay;
+        this.maxHedgeRatio = maxHedgeRatio;
+    }
+
+    public static HedgingPolicy disabled() {
+        return DISABLED;
+    }
+
+    public static HedgingPolicy of(Duration hedgeDelay, double maxHedgePercent) {
+        if (maxHedgePercent < 0 || maxHedgePercent > 100) {
+            throw new IllegalArgumentException("maxHedgePercent must be between 0 and 100, was " + maxHedgePercent);
+        }
+        return new HedgingPolicy(true, hedgeDelay, maxHedgePercent / 100);
+    }
+
+    public <T> Mono<T> hedge(Supplier<Mono<T>> request) {
+        if (!enabled) {
+            return request.get();
+        }
+        return Mono.defer(() -> {
+            requests.increment();
+            recordRequest();
+            Mono<T> hedged = Mono.delay(hedgeDelay)
+                    .flatMap(tick -> {
+                        if (!tryAcquireHedge()) {
+                            return Mono.<T>never(); // over budget, let the primary request decide
+                        }
+                        return request.get()
+                                .doOnNext(value -> hedgesWon.increment())
+                                .onErrorResume(throwable -> Mono.never()); // a failed hedge must not fail the call
+                    });
+            return Mono.firstWithSignal(request.get(), hedged); // the loser is cancelled
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getHedgesFiredCount() {
+        return hedgesFired.sum();
+    }
+
+    public long getHedgesWonCount() {
+        return hedgesWon.sum();
+    }
+
+    private void recordRequest() {
+        long current;
+        long next;
+        do {
+            current = budget.get();
+            long windowRequests = (current >>> 32) + 1;
+            long windowHedges = current & 0xFFFF_FFFFL;
+            if (windowRequests > BUDGET_WINDOW) { // decay, a long quiet spell must not bank a burst of hedges
+                windowRequests >>>= 1;
+                windowHedges >>>= 1;
+            }
+            next = windowRequests << 32 | windowHedges;
+        } while (!budget.compareAndSet(current, next));
+    }
+
+    private boolean tryAcquireHedge() {
+        long current;
+        do {
+            current = budget.get();
+            long windowRequests = current >>> 32;
+            long windowHedges = current & 0xFFFF_FFFFL;
+            if (windowHedges + 1 > windowRequests * maxHedgeRatio) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current + 1)); // the slot is reserved before the hedge is sent
+        hedgesFired.increment();
+        return true;
+    }
+
+}
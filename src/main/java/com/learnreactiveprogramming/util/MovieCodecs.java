@@ -0,0 +1,65 @@
+package com.learnreactiveprogramming.util;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.MapperBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+
+public class MovieCodecs {
+
+    public static final int DEFAULT_MAX_IN_MEMORY_SIZE = 256 * 1024; // per decoded element when streaming
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    // shared and thread safe, building a mapper per client repeats all the introspection work
+    private static final ObjectMapper OBJECT_MAPPER = configure(JsonMapper.builder());
+    private static final ObjectMapper SMILE_MAPPER = configure(SmileMapper.builder()); // same bindings, binary encoding
+
+    private MovieCodecs() {
+    }
+
+    public static ObjectMapper objectMapper() {
+        return OBJECT_MAPPER;
+    }
+
+    public static ObjectMapper smileMapper() {
+        return SMILE_MAPPER;
+    }
+
+    public static ExchangeStrategies exchangeStrategies() {
+        return exchangeStrategies(DEFAULT_MAX_IN_MEMORY_SIZE);
+    }
+
+    public static ExchangeStrategies exchangeStrategies(int maxInMemorySize) {
+        return ExchangeStrategies.builder()
+                .codecs(configurer -> {
+                    configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(OBJECT_MAPPER)); // json and x-ndjson
+                    configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(OBJECT_MAPPER));
+                    configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(SMILE_MAPPER));
+                    configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(SMILE_MAPPER));
+                    configurer.defaultCodecs().maxInMemorySize(maxInMemorySize);
+                })
+                .build();
+    }
+
+    private static ObjectMapper configure(MapperBuilder<?, ?> builder) {
+        return builder
+                .addModule(new JavaTimeModule())
+                .visibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .visibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY) // bind fields only, no getter/setter/creator scanning
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+}
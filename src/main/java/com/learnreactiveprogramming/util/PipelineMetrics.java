@@ -0,0 +1,146 @@
+package com.learnreactiveprogramming.util;
+
+import lombok.Value;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class PipelineMetrics {
+
+    private static final PipelineMetrics SHARED = new PipelineMetrics();
+
+    // -Dpipeline.debug=true brings back the per signal .log() output
+    private static volatile boolean debugEnabled = Boolean.getBoolean("pipeline.debug");
+
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+
+    public PipelineMetrics() { // a registry of its own, e.g. per service instance or per test
+    }
+
+    public static PipelineMetrics shared() {
+        return SHARED;
+    }
+
+    public static <T> Function<Publisher<T>, Publisher<T>> of(String name) {
+        return SHARED.stage(name);
+    }
+
+    public static Snapshot snapshot(String name) {
+        return SHARED.get(name);
+    }
+
+    public static Map<String, Snapshot> snapshots() {
+        return SHARED.getAll();
+    }
+
+    public static boolean isDebugEnabled() {
+        return debugEnabled;
+    }
+
+    public static void setDebugEnabled(boolean enabled) {
+        debugEnabled = enabled;
+    }
+
+    public <T> Function<Publisher<T>, Publisher<T>> stage(String name) {
+        return source -> instrument(name, source);
+    }
+
+    public Snapshot get(String name) {
+        Stage stage = stages.get(name);
+        return stage == null ? null : stage.snapshot();
+    }
+
+    public Map<String, Snapshot> getAll() {
+        return stages.values().stream()
+                .collect(Collectors.toMap(stage -> stage.name, Stage::snapshot));
+    }
+
+    public void reset() { // pipelines assembled before keep counting, they look their stage up on every subscribe
+        stages.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Publisher<T> instrument(String name, Publisher<T> source) {
+        if (source instanceof Mono) {
+            Mono<T> mono = debugEnabled ? ((Mono<T>) source).log(name) : (Mono<T>) source;
+            return Mono.defer(() -> {
+                Stage stage = stages.computeIfAbsent(name, Stage::new);
+                long subscribedAt = stage.onSubscribe();
+                return mono.doOnNext(value -> stage.emitted.increment())
+                        .doFinally(signalType -> stage.onFinally(signalType, subscribedAt));
+            });
+        }
+        Flux<T> flux = debugEnabled ? Flux.from(source).log(name) : Flux.from(source);
+        return Flux.defer(() -> {
+            Stage stage = stages.computeIfAbsent(name, Stage::new);
+            long subscribedAt = stage.onSubscribe();
+            return flux.doOnNext(value -> stage.emitted.increment())
+                    .doFinally(signalType -> stage.onFinally(signalType, subscribedAt));
+        });
+    }
+
+    private static final class Stage {
+        private final String name;
+        private final long createdAtNanos = System.nanoTime();
+        private final LongAdder subscribed = new LongAdder();
+        private final LongAdder emitted = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder cancelled = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram(); // subscribe to complete or error
+
+        private Stage(String name) {
+            this.name = name;
+        }
+
+        private long onSubscribe() {
+            subscribed.increment();
+            return System.nanoTime();
+        }
+
+        private void onFinally(SignalType signalType, long subscribedAt) {
+            if (signalType == SignalType.CANCEL) {
+                cancelled.increment();
+                return;
+            }
+            if (signalType == SignalType.ON_ERROR) {
+                failed.increment();
+            } else {
+                completed.increment();
+            }
+            latency.record(System.nanoTime() - subscribedAt);
+        }
+
+        private Snapshot snapshot() {
+            double elapsedSeconds = Math.max(1e-9, (System.nanoTime() - createdAtNanos) / 1e9);
+            long onNextCount = emitted.sum();
+            return new Snapshot(name, subscribed.sum(), onNextCount, onNextCount / elapsedSeconds, completed.sum(),
+                    failed.sum(), cancelled.sum(), latency.snapshot());
+        }
+    }
+
+    @Value
+    public static class Snapshot {
+        String name;
+        long subscribeCount;
+        long onNextCount;
+        double onNextRatePerSecond; // since the stage was first subscribed, or since the last reset
+        long completeCount;
+        long errorCount;
+        long cancelCount;
+        long[] latencyBuckets;
+
+        public Duration latencyPercentile(double quantile) {
+            return LatencyHistogram.percentile(latencyBuckets, quantile);
+        }
+    }
+
+}
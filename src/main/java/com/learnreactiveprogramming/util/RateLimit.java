@@ -0,0 +1,38 @@
+package com.learnreactiveprogramming.util;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+public class RateLimit {
+
+    double permitsPerSecond; // sustained rate of every endpoint
+    int burst; // requests that may go at once after an idle period
+    boolean failFast; // true rejects a request that would have to wait, false delays it
+
+    @Builder(toBuilder = true)
+    private RateLimit(double permitsPerSecond, int burst, boolean failFast) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive, was " + permitsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be positive, was " + burst);
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.failFast = failFast;
+    }
+
+    public static RateLimitBuilder builder() {
+        return new RateLimitBuilder()
+                .burst(1)
+                .failFast(false);
+    }
+
+    public static RateLimit of(double permitsPerSecond, int burst) {
+        return RateLimit.builder()
+                .permitsPerSecond(permitsPerSecond)
+                .burst(burst)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.learnreactiveprogramming.util;
+
+import com.learnreactiveprogramming.exception.RateLimitExceededException;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// one token bucket per endpoint, requests over the rate wait on a timer instead of a thread
+public class RateLimitingFilter implements ExchangeFilterFunction {
+
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+    private final RateLimit rateLimit;
+    private final Scheduler scheduler; // runs the waits
+    private final LongSupplier nanoClock; // drives the buckets
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimitingFilter(RateLimit rateLimit) {
+        this(rateLimit, Schedulers.parallel(), System::nanoTime);
+    }
+
+    // virtual time tests, the scheduler's clock only has millisecond resolution and may step back, fine when nothing else moves it
+    RateLimitingFilter(RateLimit rateLimit, Scheduler scheduler) {
+        this(rateLimit, scheduler, () -> scheduler.now(TimeUnit.NANOSECONDS));
+    }
+
+    private RateLimitingFilter(RateLimit rateLimit, Scheduler scheduler, LongSupplier nanoClock) {
+        this.rateLimit = rateLimit;
+        this.scheduler = scheduler;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            String endpoint = endpointOf(request);
+            TokenBucket bucket = buckets.computeIfAbsent(endpoint,
+                    key -> new TokenBucket(rateLimit.getPermitsPerSecond(), rateLimit.getBurst(), nanoClock));
+            long waitNanos = bucket.reserve(rateLimit.isFailFast() ? 0L : Long.MAX_VALUE);
+            if (waitNanos < 0) {
+                rejected.increment();
+                return Mono.error(new RateLimitExceededException("Rate limit of " + rateLimit.getPermitsPerSecond()
+                        + " requests per second exceeded for " + endpoint));
+            }
+            if (waitNanos == 0) {
+                return next.exchange(request);
+            }
+            delayed.increment();
+            return Mono.delay(Duration.ofNanos(waitNanos), scheduler)
+                    .doOnCancel(bucket::release) // cancelled while waiting, e.g. by a deadline
+                    .then(Mono.defer(() -> next.exchange(request)));
+        });
+    }
+
+    public long getDelayedCount() {
+        return delayed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    // the uri template keeps /v1/movie_infos/{id} one endpoint, the query string never counts
+    private static String endpointOf(ClientRequest request) {
+        URI url = request.url();
+        String path = request.attribute(URI_TEMPLATE_ATTRIBUTE)
+                .map(Object::toString)
+                .map(template -> templatePath(template, url.getRawPath()))
+                .orElse(url.getRawPath());
+        return request.method() + " " + url.getAuthority() + path;
+    }
+
+    // a relative template leaves out the base path of the client, it is taken from the request path
+    private static String templatePath(String template, String requestPath) {
+        String path = template.contains("?") ? template.substring(0, template.indexOf('?')) : template;
+        if (path.contains("://")) { // absolute template, the base url was not used
+            int pathStart = path.indexOf('/', path.indexOf("://") + 3);
+            return pathStart < 0 ? "" : path.substring(pathStart);
+        }
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        String[] requestSegments = requestPath.split("/", -1);
+        String[] templateSegments = path.split("/", -1);
+        int basePathSegments = requestSegments.length - templateSegments.length + 1; // both start with an empty segment
+        if (basePathSegments < 1) {
+            return requestPath;
+        }
+        return String.join("/", Arrays.copyOf(requestSegments, basePathSegments)) + path;
+    }
+}
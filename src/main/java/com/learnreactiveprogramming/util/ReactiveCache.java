@@ -0,0 +1,111 @@
+package com.learnreactiveprogramming.util;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+public class ReactiveCache<K, V> {
+
+    private final long ttlNanos;
+    private final int maximumSize;
+    private final LongSupplier nanoTicker;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    // access ordered, so the eldest entry is the least recently used one.
+    // guarded by itself, the lock is only held for map operations and never while loading a value
+    private final Map<K, CacheEntry<V>> entries;
+
+    public ReactiveCache(Duration ttl, int maximumSize) {
+        this(ttl, maximumSize, System::nanoTime);
+    }
+
+    public ReactiveCache(Duration ttl, int maximumSize, LongSupplier nanoTicker) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive, was " + maximumSize);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maximumSize = maximumSize;
+        this.nanoTicker = nanoTicker;
+        this.entries = new LinkedHashMap<K, CacheEntry<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > ReactiveCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Mono<V> get(K key, Function<K, Mono<V>> loader) {
+        return Mono.defer(() -> {
+            V cached = getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return loader.apply(key)
+                    .doOnNext(value -> put(key, value)); // only values are stored, a failed load is retried by the next caller
+        });
+    }
+
+    public V getIfPresent(K key) {
+        long now = nanoTicker.getAsLong();
+        synchronized (entries) {
+            CacheEntry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (now - entry.writtenAtNanos >= ttlNanos) {
+                entries.remove(key);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        CacheEntry<V> entry = new CacheEntry<>(value, nanoTicker.getAsLong());
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), expirations.sum(), size);
+    }
+
+    private static final class CacheEntry<V> {
+        private final V value;
+        private final long writtenAtNanos;
+
+        private CacheEntry(V value, long writtenAtNanos) {
+            this.value = value;
+            this.writtenAtNanos = writtenAtNanos;
+        }
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.learnreactiveprogramming.util;
+
+import com.learnreactiveprogramming.domain.Review;
+import com.learnreactiveprogramming.domain.ReviewStats;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// folds reviews into running aggregates, memory stays the same for ten or ten million reviews
+public class ReviewStatsCollector {
+
+    private final P2QuantileEstimator p50 = new P2QuantileEstimator(0.5);
+    private final P2QuantileEstimator p90 = new P2QuantileEstimator(0.9);
+    private long count;
+    private long ratedCount;
+    private double mean;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public static Mono<ReviewStats> collect(Flux<Review> reviews) {
+        return reviews.reduceWith(ReviewStatsCollector::new, ReviewStatsCollector::add)
+                .map(ReviewStatsCollector::toStats);
+    }
+
+    public ReviewStatsCollector add(Review review) {
+        count++;
+        if (review.getRating() != null) {
+            double rating = review.getRating();
+            ratedCount++;
+            mean += (rating - mean) / ratedCount; // running mean, no sum to overflow precision
+            min = Math.min(min, rating);
+            max = Math.max(max, rating);
+            p50.add(rating);
+            p90.add(rating);
+        }
+        return this;
+    }
+
+    public ReviewStats toStats() {
+        boolean rated = ratedCount > 0;
+        return ReviewStats.builder()
+                .count(count)
+                .ratedCount(ratedCount)
+                .mean(rated ? mean : Double.NaN)
+                .min(rated ? min : Double.NaN)
+                .max(rated ? max : Double.NaN)
+                .p50(p50.estimate())
+                .p90(p90.estimate())
+                .build();
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.learnreactiveprogramming.util;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// concurrent calls for the same key share one in-flight lookup, nothing is kept once it terminated
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> lookup) {
+        return Mono.defer(() -> {
+            calls.increment();
+            return inFlight.computeIfAbsent(key, k -> newFlight(k, lookup));
+        });
+    }
+
+    public SingleFlightStats stats() {
+        return new SingleFlightStats(calls.sum(), executions.sum(), inFlight.size());
+    }
+
+    private Mono<V> newFlight(K key, Supplier<Mono<V>> lookup) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> flight = Mono.defer(() -> {
+                    executions.increment();
+                    return lookup.get();
+                })
+                .contextWrite(context -> context.delete(Deadline.class)) // the flight outlives its first caller, every caller enforces its own deadline on the shared result
+                .doOnTerminate(() -> inFlight.remove(key, self.get())) // before the callers see the signal, so their next call starts a fresh lookup
+                .cache(); // every caller of this flight gets the same signal
+        self.set(flight);
+        return flight;
+    }
+
+}
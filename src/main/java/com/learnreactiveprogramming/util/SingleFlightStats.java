@@ -0,0 +1,14 @@
+package com.learnreactiveprogramming.util;
+
+import lombok.Value;
+
+@Value
+public class SingleFlightStats {
+    long callCount; // every subscription to execute
+    long executionCount; // calls that actually ran the lookup
+    int inFlightCount;
+
+    public double coalescingRatio() { // share of the calls served by a lookup somebody else started
+        return callCount == 0 ? 0.0 : 1.0 - (double) executionCount / callCount;
+    }
+}
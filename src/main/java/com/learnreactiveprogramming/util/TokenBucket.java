@@ -0,0 +1,50 @@
+package com.learnreactiveprogramming.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// token bucket as GCRA: one timestamp instead of a token count and a refill task, updated with a single CAS
+public class TokenBucket {
+
+    private final long emissionIntervalNanos; // time to earn one token
+    private final long burstToleranceNanos; // how far ahead of the sustained rate a burst may run
+    private final LongSupplier nanoClock; // monotonic, System.nanoTime outside of tests
+    private final AtomicLong theoreticalArrivalNanos = new AtomicLong(Long.MIN_VALUE); // when the next request is due at the sustained rate
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    public TokenBucket(double permitsPerSecond, int burst, LongSupplier nanoClock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive, was " + permitsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be positive, was " + burst);
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.nanoClock = nanoClock;
+    }
+
+    // nanos the caller has to wait before sending, or -1 without taking a token when that is more than maxWaitNanos
+    public long reserve(long maxWaitNanos) {
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long theoreticalArrival = theoreticalArrivalNanos.get();
+            long start = Math.max(theoreticalArrival, now);
+            long waitNanos = Math.max(0L, start - burstToleranceNanos - now);
+            if (waitNanos > maxWaitNanos) {
+                return -1L;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(theoreticalArrival, start + emissionIntervalNanos)) {
+                return waitNanos;
+            }
+        }
+    }
+
+    public void release() { // a reservation that was never used, the next caller may go one interval earlier
+        theoreticalArrivalNanos.addAndGet(-emissionIntervalNanos);
+    }
+}
@@ -0,0 +1,22 @@
+package com.learnreactiveprogramming.util;
+
+import org.springframework.http.MediaType;
+
+import java.util.List;
+
+public enum WireFormat {
+
+    JSON(List.of(MediaType.APPLICATION_JSON)),
+    SMILE(List.of(MovieCodecs.APPLICATION_SMILE, MediaType.APPLICATION_JSON)); // binary jackson, json from servers that can't
+
+    private final List<MediaType> acceptedMediaTypes;
+
+    WireFormat(List<MediaType> acceptedMediaTypes) {
+        this.acceptedMediaTypes = acceptedMediaTypes;
+    }
+
+    public List<MediaType> getAcceptedMediaTypes() { // preferred first, sent as the Accept header
+        return acceptedMediaTypes;
+    }
+
+}
@@ -1,4 +1,113 @@
 package com.learnreactiveprogramming;
 
+import com.learnreactiveprogramming.domain.Movie;
+import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.service.BackpressurePolicy;
+import com.learnreactiveprogramming.service.BackpressureStats;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class BackpressureTest {
+
+    @Test
+    void bufferOrError() {
+        BackpressurePolicy policy = BackpressurePolicy.bufferOrError(5);
+
+        StepVerifier.create(policy.apply(movies(1, 10)), 0)
+                .expectSubscription()
+                .thenRequest(Long.MAX_VALUE)
+                .thenConsumeWhile(movie -> true)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify();
+
+        assertEquals(5, policy.getStats().getHighWaterMark());
+    }
+
+    @Test
+    void dropOldest() {
+        BackpressurePolicy policy = BackpressurePolicy.dropOldest(3);
+
+        StepVerifier.create(policy.apply(movies(1, 10)), 0)
+                .expectSubscription()
+                .thenRequest(10)
+                .expectNextMatches(movieId(8))
+                .expectNextMatches(movieId(9))
+                .expectNextMatches(movieId(10))
+                .verifyComplete();
+
+        assertEquals(new BackpressureStats(10, 3, 7, 3), policy.getStats());
+    }
+
+    @Test
+    void dropNewest() {
+        BackpressurePolicy policy = BackpressurePolicy.dropNewest(3);
+
+        StepVerifier.create(policy.apply(movies(1, 10)), 0)
+                .expectSubscription()
+                .thenRequest(10)
+                .expectNextMatches(movieId(1))
+                .expectNextMatches(movieId(2))
+                .expectNextMatches(movieId(3))
+                .verifyComplete();
+
+        assertEquals(new BackpressureStats(10, 3, 7, 3), policy.getStats());
+    }
+
+    @Test
+    void keepLatestPerMovie() {
+        BackpressurePolicy policy = BackpressurePolicy.keepLatestPerMovie();
+        Flux<Movie> updates = Flux.range(0, 9)
+                .map(version -> movie((long) (version % 3) + 1, "Batman Begins v" + version));
+
+        StepVerifier.create(policy.apply(updates), 0)
+                .expectSubscription()
+                .thenRequest(10)
+                .expectNextMatches(movie -> movie.getMovie().getName().equals("Batman Begins v6"))
+                .expectNextMatches(movie -> movie.getMovie().getName().equals("Batman Begins v7"))
+                .expectNextMatches(movie -> movie.getMovie().getName().equals("Batman Begins v8"))
+                .verifyComplete();
+
+        assertEquals(new BackpressureStats(9, 3, 6, 3), policy.getStats());
+    }
+
+    @Test
+    void sample() {
+        BackpressurePolicy policy = BackpressurePolicy.sample(Duration.ofMillis(100));
+
+        StepVerifier.withVirtualTime(() -> policy.apply(Flux.interval(Duration.ofMillis(7))
+                        .take(70)
+                        .map(tick -> movie(tick, "Batman Begins"))))
+                .thenAwait(Duration.ofSeconds(1))
+                .thenConsumeWhile(movie -> true)
+                .verifyComplete();
+
+        BackpressureStats stats = policy.getStats();
+        assertEquals(70, stats.getReceivedCount());
+        assertTrue(stats.getEmittedCount() < 10);
+        assertTrue(stats.getDroppedCount() > 50);
+    }
+
+    private static Flux<Movie> movies(int from, int to) {
+        return Flux.range(from, to - from + 1)
+                .map(movieInfoId -> movie((long) movieInfoId, "Batman Begins"));
+    }
+
+    private static Movie movie(Long movieInfoId, String name) {
+        MovieInfo movieInfo = new MovieInfo(movieInfoId, name, 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        return new Movie(movieInfo, List.of());
+    }
+
+    private static Predicate<Movie> movieId(long movieInfoId) {
+        return movie -> movie.getMovie().getMovieInfoId() == movieInfoId;
+    }
 }
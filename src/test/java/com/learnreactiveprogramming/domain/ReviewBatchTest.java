@@ -0,0 +1,58 @@
+package com.learnreactiveprogramming.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReviewBatchTest {
+
+    List<Review> reviews = List.of(new Review(1L, 100L, "Awesome Movie", 8.0),
+            new Review(2L, 100L, "Excellent Movie", 9.0),
+            new Review(3L, 101L, "Awesome Movie", 7.0),
+            new Review(4L, 101L, null, null));
+
+    @Test
+    void of_roundTripsReviews() {
+        ReviewBatch reviewBatch = ReviewBatch.of(reviews);
+
+        assertEquals(4, reviewBatch.size());
+        assertEquals(reviews, reviewBatch.toReviews());
+        assertNull(reviewBatch.getComment(3));
+        assertSame(reviewBatch.getComment(0), reviewBatch.getComment(2)); // one dictionary entry per distinct comment
+    }
+
+    @Test
+    void averageRating_skipsMissingRatings() {
+        ReviewBatch reviewBatch = ReviewBatch.of(reviews);
+
+        assertEquals(8.0, reviewBatch.averageRating());
+        assertEquals(Map.of(100L, 8.5, 101L, 7.0), reviewBatch.averageRatingByMovie());
+    }
+
+    @Test
+    void splitByMovie() {
+        Map<Long, ReviewBatch> reviewsByMovie = ReviewBatch.of(reviews).splitByMovie();
+
+        assertEquals(ReviewBatch.of(reviews.subList(0, 2)), reviewsByMovie.get(100L));
+        assertEquals(ReviewBatch.of(reviews.subList(2, 4)), reviewsByMovie.get(101L));
+    }
+
+    @Test
+    void splitByMovie_slicesOnlyCountTheirOwnComments() {
+        Map<Long, ReviewBatch> reviewsByMovie = ReviewBatch.of(reviews).splitByMovie();
+
+        assertEquals(ReviewBatch.of(reviews.subList(2, 4)).estimateSize(), reviewsByMovie.get(101L).estimateSize()); // "Excellent Movie" belongs to 100 only
+    }
+
+    @Test
+    void empty() {
+        assertEquals(0, ReviewBatch.of(List.of()).size());
+        assertEquals(Double.NaN, ReviewBatch.empty().averageRating());
+        assertEquals(Map.of(), ReviewBatch.empty().splitByMovie());
+    }
+}
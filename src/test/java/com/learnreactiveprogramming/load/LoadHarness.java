@@ -0,0 +1,75 @@
+package com.learnreactiveprogramming.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// open loop load: requests start on schedule whether or not the earlier ones finished
+@Slf4j
+public class LoadHarness {
+
+    public static Mono<LoadReport> run(String name, Supplier<? extends Publisher<?>> operation, double ratePerSecond, Duration duration) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("ratePerSecond must be positive, was " + ratePerSecond);
+        }
+        Duration period = Duration.ofNanos((long) (1_000_000_000d / ratePerSecond));
+        long requests = Math.max(1, duration.toNanos() / period.toNanos());
+        if (requests > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A run of " + requests + " requests does not fit the latency record, shorten it");
+        }
+        return Mono.defer(() -> {
+            AtomicLongArray latencies = new AtomicLongArray((int) requests); // exact latency of every request, slot = its tick
+            LongAdder succeeded = new LongAdder();
+            Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+            long startNanos = System.nanoTime();
+            return Flux.interval(Duration.ZERO, period)
+                    .take(requests)
+                    .flatMap(tick -> {
+                        long scheduledNanos = startNanos + tick * period.toNanos(); // measured from when it should have started, a stalled timer still shows up
+                        return Flux.from(operation.get())
+                                .then()
+                                .doOnSuccess(done -> {
+                                    latencies.set(tick.intValue(), System.nanoTime() - scheduledNanos);
+                                    succeeded.increment();
+                                })
+                                .onErrorResume(throwable -> {
+                                    latencies.set(tick.intValue(), System.nanoTime() - scheduledNanos);
+                                    errors.computeIfAbsent(throwable.getClass().getSimpleName(), type -> new LongAdder()).increment();
+                                    return Mono.empty();
+                                });
+                    }, Integer.MAX_VALUE) // never queue behind slow requests, that would hide the latency
+                    .then(Mono.fromCallable(() -> report(name, ratePerSecond, Duration.ofNanos(System.nanoTime() - startNanos),
+                            requests, succeeded.sum(), errors, latencies)))
+                    .doOnNext(report -> log.info(report.summary()));
+        });
+    }
+
+    private static LoadReport report(String name, double ratePerSecond, Duration elapsed, long sent, long succeeded,
+                                     Map<String, LongAdder> errors, AtomicLongArray latencies) {
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((type, count) -> errorCounts.put(type, count.sum()));
+        long failed = errorCounts.values().stream().mapToLong(Long::longValue).sum();
+        long[] sorted = new long[latencies.length()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        return new LoadReport(name, ratePerSecond, elapsed, sent, succeeded, failed, errorCounts,
+                percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999));
+    }
+
+    private static Duration percentile(long[] sorted, double quantile) { // nearest rank, exact rather than bucketed
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return Duration.ofNanos(sorted[Math.max(0, rank - 1)]);
+    }
+}
@@ -0,0 +1,34 @@
+package com.learnreactiveprogramming.load;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Value
+public class LoadReport {
+    String name;
+    double targetRate; // requests per second
+    Duration elapsed;
+    long sent;
+    long succeeded;
+    long failed;
+    Map<String, Long> errors; // failures by exception type
+    Duration p50;
+    Duration p99;
+    Duration p999;
+
+    public double getThroughput() { // successful requests per second
+        return elapsed.isZero() ? 0 : succeeded * 1_000_000_000d / elapsed.toNanos();
+    }
+
+    public String summary() {
+        return String.format("%s: target %.1f/s, sent %d, ok %d, failed %d, throughput %.1f/s, p50 %.2fms, p99 %.2fms, p999 %.2fms, errors %s",
+                name, targetRate, sent, succeeded, failed, getThroughput(),
+                millis(p50), millis(p99), millis(p999), errors);
+    }
+
+    private static double millis(Duration latency) {
+        return latency.toNanos() / 1_000_000d;
+    }
+}
@@ -0,0 +1,123 @@
+package com.learnreactiveprogramming.load;
+
+import com.github.tomakehurst.wiremock.http.LogNormal;
+import com.learnreactiveprogramming.service.MovieClientFactory;
+import com.learnreactiveprogramming.service.MovieClientOptions;
+import com.learnreactiveprogramming.service.MovieInfoService;
+import com.learnreactiveprogramming.service.MovieReactiveService;
+import com.learnreactiveprogramming.service.ReviewService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// run with ./gradlew loadTest, tuned with -Pload.rate=200 -Pload.duration=PT1M -Pload.errorRate=0.01
+@Tag("load")
+class MovieReactiveServiceLoadTest {
+
+    static final double RATE = Double.parseDouble(System.getProperty("load.rate", "50"));
+    static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT10S"));
+    static final Duration SOAK_DURATION = Duration.parse(System.getProperty("load.soakDuration", "PT30S"));
+    static final double ERROR_RATE = Double.parseDouble(System.getProperty("load.errorRate", "0.01"));
+
+    MovieUpstreamStub upstream;
+    MovieClientFactory movieClientFactory;
+
+    @AfterEach
+    void tearDown() {
+        if (movieClientFactory != null) {
+            movieClientFactory.dispose();
+        }
+        if (upstream != null) {
+            upstream.close();
+        }
+    }
+
+    @Test
+    void getMovieByIdUsingRest_atTargetRate() {
+        UpstreamProfile profile = UpstreamProfile.healthy();
+        MovieReactiveService movieReactiveService = movieReactiveService(profile);
+
+        LoadReport report = LoadHarness.run("movie.byId.rest",
+                () -> movieReactiveService.getMovieByIdUsingRest(randomMovieInfoId(profile)), RATE, DURATION)
+                .block();
+
+        assertEquals(0, report.getFailed(), report.summary());
+        assertEquals(report.getSent(), report.getSucceeded());
+        assertTrue(report.getThroughput() >= RATE * 0.8, report.summary());
+    }
+
+    @Test
+    void getMoviesUsingRest_atTargetRate() {
+        MovieReactiveService movieReactiveService = movieReactiveService(UpstreamProfile.healthy());
+        double catalogRate = Math.max(1, RATE / 10); // every catalog pulls all movies and their reviews
+
+        LoadReport report = LoadHarness.run("movies.rest", movieReactiveService::getMoviesUsingRest, catalogRate, DURATION)
+                .block();
+
+        assertEquals(0, report.getFailed(), report.summary());
+        assertEquals(report.getSent(), report.getSucceeded());
+    }
+
+    @Test
+    void soak_withUpstreamErrors() {
+        UpstreamProfile profile = UpstreamProfile.healthy().toBuilder()
+                .errorRate(ERROR_RATE)
+                .build();
+        MovieReactiveService movieReactiveService = movieReactiveService(profile);
+
+        LoadReport report = LoadHarness.run("movie.byId.rest.soak",
+                () -> movieReactiveService.getMovieByIdUsingRest(randomMovieInfoId(profile)), RATE, SOAK_DURATION)
+                .block();
+
+        assertEquals(report.getSent(), report.getSucceeded() + report.getFailed(), report.summary()); // nothing left hanging
+        if (ERROR_RATE > 0) {
+            assertNotEquals(0, report.getFailed(), report.summary());
+        }
+    }
+
+    @Test
+    void getMovieByIdUsingRest_recoversFromADegradedUpstream() {
+        UpstreamProfile healthy = UpstreamProfile.healthy();
+        UpstreamProfile degraded = healthy.toBuilder()
+                .reviewLatency(new LogNormal(300, 0.5))
+                .errorRate(0.2)
+                .build();
+        MovieReactiveService movieReactiveService = movieReactiveService(healthy);
+        Disposable degrade = Mono.delay(DURATION.dividedBy(2))
+                .subscribe(tick -> upstream.changeProfile(degraded)); // halfway through the run
+
+        LoadReport degradedReport = LoadHarness.run("movie.byId.rest.degraded",
+                () -> movieReactiveService.getMovieByIdUsingRest(randomMovieInfoId(healthy)), RATE, DURATION)
+                .block();
+        degrade.dispose();
+        upstream.changeProfile(healthy);
+        LoadReport recoveredReport = LoadHarness.run("movie.byId.rest.recovered",
+                () -> movieReactiveService.getMovieByIdUsingRest(randomMovieInfoId(healthy)), RATE, DURATION.dividedBy(2))
+                .block();
+
+        assertEquals(degradedReport.getSent(), degradedReport.getSucceeded() + degradedReport.getFailed(), degradedReport.summary()); // nothing left hanging
+        assertEquals(0, recoveredReport.getFailed(), recoveredReport.summary()); // no pool or retry state left over from the bad spell
+        assertTrue(recoveredReport.getP99().compareTo(degradedReport.getP99()) < 0, recoveredReport.summary());
+    }
+
+    private MovieReactiveService movieReactiveService(UpstreamProfile profile) {
+        upstream = new MovieUpstreamStub(profile).start();
+        movieClientFactory = new MovieClientFactory(MovieClientOptions.builder()
+                .poolName("load-test")
+                .build());
+        WebClient webClient = movieClientFactory.webClient(upstream.baseUrl());
+        return new MovieReactiveService(new ReviewService(webClient), new MovieInfoService(webClient), null);
+    }
+
+    private static long randomMovieInfoId(UpstreamProfile profile) {
+        return ThreadLocalRandom.current().nextLong(1, profile.getMovieCount() + 1);
+    }
+}
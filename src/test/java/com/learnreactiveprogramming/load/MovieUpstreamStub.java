@@ -0,0 +1,55 @@
+package com.learnreactiveprogramming.load;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.MappingBuilder;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+// the movie info and review service on a random local port, shaped by an UpstreamProfile
+public class MovieUpstreamStub implements AutoCloseable {
+
+    private final WireMockServer wireMockServer;
+    private final MovieUpstreamTransformer transformer;
+
+    public MovieUpstreamStub(UpstreamProfile profile) {
+        this.transformer = new MovieUpstreamTransformer(profile);
+        this.wireMockServer = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .asynchronousResponseEnabled(true) // delayed responses wait on a timer, not on a jetty thread
+                .asynchronousResponseThreads(profile.getResponseThreads())
+                .containerThreads(profile.getResponseThreads())
+                .disableRequestJournal() // would keep every request of a soak run in memory
+                .extensions(transformer));
+    }
+
+    public MovieUpstreamStub start() {
+        wireMockServer.start();
+        stub(get(urlPathEqualTo("/movies/v1/movie_infos")), MovieUpstreamTransformer.MOVIE_INFOS);
+        stub(get(urlPathMatching("/movies/v1/movie_infos/[0-9]+")), MovieUpstreamTransformer.MOVIE_INFO);
+        stub(get(urlPathEqualTo("/movies/v1/reviews")), MovieUpstreamTransformer.REVIEWS);
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + wireMockServer.port() + "/movies";
+    }
+
+    public void changeProfile(UpstreamProfile profile) { // latency and errors only, the server keeps its threads
+        transformer.setProfile(profile);
+    }
+
+    @Override
+    public void close() {
+        wireMockServer.stop();
+    }
+
+    private void stub(MappingBuilder request, String endpoint) {
+        wireMockServer.stubFor(request.willReturn(aResponse()
+                .withTransformers(MovieUpstreamTransformer.NAME)
+                .withTransformerParameter("endpoint", endpoint)));
+    }
+}
@@ -0,0 +1,112 @@
+package com.learnreactiveprogramming.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.QueryParameter;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.domain.Review;
+import com.learnreactiveprogramming.util.MovieCodecs;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// answers the movie info and review endpoints from the profile, so one stub per endpoint covers every id
+public class MovieUpstreamTransformer extends ResponseDefinitionTransformer {
+
+    static final String NAME = "movie-upstream";
+    static final String MOVIE_INFOS = "movieInfos";
+    static final String MOVIE_INFO = "movieInfo";
+    static final String REVIEWS = "reviews";
+
+    private final ObjectMapper objectMapper = MovieCodecs.objectMapper();
+    private volatile UpstreamProfile profile;
+
+    public MovieUpstreamTransformer(UpstreamProfile profile) {
+        this.profile = profile;
+    }
+
+    void setProfile(UpstreamProfile profile) { // lets a soak run change the upstream while it is loaded
+        this.profile = profile;
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition, FileSource files, Parameters parameters) {
+        UpstreamProfile current = profile;
+        String endpoint = parameters.getString("endpoint");
+        ResponseDefinitionBuilder response = ResponseDefinitionBuilder.like(responseDefinition)
+                .withRandomDelay(REVIEWS.equals(endpoint) ? current.getReviewLatency() : current.getMovieInfoLatency());
+        if (ThreadLocalRandom.current().nextDouble() < current.getErrorRate()) {
+            return response.withStatus(503).withBody("upstream overloaded").build();
+        }
+        return response
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(toJson(body(endpoint, request, current)))
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    private Object body(String endpoint, Request request, UpstreamProfile current) {
+        switch (endpoint) {
+            case MOVIE_INFOS:
+                return LongStream.rangeClosed(1, current.getMovieCount())
+                        .mapToObj(MovieUpstreamTransformer::movieInfo)
+                        .collect(Collectors.toList());
+            case MOVIE_INFO:
+                String url = request.getUrl();
+                return movieInfo(Long.parseLong(url.substring(url.lastIndexOf('/') + 1)));
+            case REVIEWS:
+                QueryParameter movieInfoIds = request.queryParameter("movieInfoId");
+                List<Review> reviews = new ArrayList<>();
+                if (movieInfoIds.isPresent()) {
+                    for (String movieInfoId : movieInfoIds.values()) { // the batch endpoint repeats the parameter
+                        reviews.addAll(reviews(Long.parseLong(movieInfoId), current.getReviewsPerMovie()));
+                    }
+                }
+                return reviews;
+            default:
+                throw new IllegalArgumentException("Unknown movie upstream endpoint " + endpoint);
+        }
+    }
+
+    private static MovieInfo movieInfo(long movieInfoId) {
+        return new MovieInfo(movieInfoId, "Movie " + movieInfoId, 2000 + (int) (movieInfoId % 20),
+                List.of("Christian Bale", "Michael Cane"), LocalDate.of(2000, 1, 1).plusDays(movieInfoId));
+    }
+
+    private static List<Review> reviews(long movieInfoId, int count) {
+        List<Review> reviews = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reviews.add(new Review(movieInfoId * 1000 + i, movieInfoId, "Review " + i, 5.0 + (i % 5)));
+        }
+        return reviews;
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
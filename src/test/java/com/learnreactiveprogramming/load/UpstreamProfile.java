@@ -0,0 +1,29 @@
+package com.learnreactiveprogramming.load;
+
+import com.github.tomakehurst.wiremock.http.DelayDistribution;
+import com.github.tomakehurst.wiremock.http.LogNormal;
+import lombok.Builder;
+import lombok.Value;
+
+// how the fake movie upstream behaves, one latency distribution per endpoint and a shared error rate
+@Value
+@Builder(toBuilder = true)
+public class UpstreamProfile {
+
+    @Builder.Default
+    int movieCount = 100;
+    @Builder.Default
+    int reviewsPerMovie = 5;
+    @Builder.Default
+    DelayDistribution movieInfoLatency = new LogNormal(20, 0.3); // median millis and sigma, a long right tail like real services
+    @Builder.Default
+    DelayDistribution reviewLatency = new LogNormal(30, 0.5);
+    @Builder.Default
+    double errorRate = 0.0d; // share of responses answered with a 503
+    @Builder.Default
+    int responseThreads = 200; // delays are served asynchronously, these only write the responses
+
+    public static UpstreamProfile healthy() {
+        return UpstreamProfile.builder().build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.learnreactiveprogramming.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.learnreactiveprogramming.domain.Review;
+import com.learnreactiveprogramming.util.MovieCodecs;
+import com.learnreactiveprogramming.util.ReactiveCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingReviewServiceTest {
+
+    List<List<Long>> requestedMovieInfoIds = new CopyOnWriteArrayList<>();
+    AtomicBoolean failNextRequest = new AtomicBoolean();
+
+    WebClient webClient = WebClient.builder()
+            .baseUrl("http://localhost:8080/movies")
+            .exchangeFunction(this::reviewService)
+            .build();
+
+    CachingReviewService cachingReviewService = new CachingReviewService(webClient, new ReactiveCache<>(Duration.ofMinutes(1), 100));
+
+    @Test
+    void getReviewsForMovies_allMissFetchesOneBatchAndCachesEveryMovie() {
+        StepVerifier.create(cachingReviewService.getReviewsForMovies(List.of(1L, 2L)).map(Review::getMovieInfoId))
+                .expectNext(1L, 2L)
+                .verifyComplete();
+        StepVerifier.create(cachingReviewService.getReviews(2L).map(Review::getMovieInfoId))
+                .expectNext(2L)
+                .verifyComplete();
+
+        assertEquals(List.of(List.of(1L, 2L)), requestedMovieInfoIds);
+    }
+
+    @Test
+    void getReviewsForMovies_allHitSendsNoRequest() {
+        cachingReviewService.getReviewsForMovies(List.of(1L, 2L)).blockLast();
+
+        StepVerifier.create(cachingReviewService.getReviewsForMovies(List.of(2L, 1L)).map(Review::getMovieInfoId))
+                .expectNext(2L, 1L)
+                .verifyComplete();
+
+        assertEquals(1, requestedMovieInfoIds.size());
+        assertEquals(2, cachingReviewService.getCacheStats().getHitCount());
+    }
+
+    @Test
+    void getReviewsForMovies_partialHitOnlyFetchesTheMissingMovies() {
+        cachingReviewService.getReviews(1L).blockLast();
+
+        StepVerifier.create(cachingReviewService.getReviewsForMovies(List.of(1L, 2L, 3L)).map(Review::getMovieInfoId).collectList())
+                .assertNext(movieInfoIds -> assertEquals(List.of(1L, 2L, 3L), movieInfoIds)) // cached ones first
+                .verifyComplete();
+        StepVerifier.create(cachingReviewService.getReviewsForMovies(List.of(1L, 4L)).map(Review::getMovieInfoId).collectList())
+                .assertNext(movieInfoIds -> assertEquals(List.of(1L, 4L), movieInfoIds))
+                .verifyComplete();
+
+        assertEquals(List.of(List.of(1L), List.of(2L, 3L), List.of(4L)), requestedMovieInfoIds); // a single missing movie skips the batch endpoint
+    }
+
+    @Test
+    void getReviewsForMovies_failureIsNotCached() {
+        failNextRequest.set(true);
+
+        StepVerifier.create(cachingReviewService.getReviewsForMovies(List.of(1L, 2L)))
+                .expectError(WebClientResponseException.class)
+                .verify();
+        StepVerifier.create(cachingReviewService.getReviewsForMovies(List.of(1L, 2L)).map(Review::getMovieInfoId))
+                .expectNext(1L, 2L)
+                .verifyComplete();
+
+        assertEquals(List.of(List.of(1L, 2L), List.of(1L, 2L)), requestedMovieInfoIds);
+    }
+
+    @Test
+    void movieClientFactory_cachesWhenCacheTtlIsSet() {
+        MovieClientFactory movieClientFactory = new MovieClientFactory(MovieClientOptions.builder()
+                .poolName("caching-test")
+                .cacheTtl(Duration.ofMinutes(5))
+                .build());
+        try {
+            assertTrue(movieClientFactory.reviewService("http://localhost:8080/movies") instanceof CachingReviewService);
+            assertTrue(movieClientFactory.movieInfoService("http://localhost:8080/movies") instanceof CachingMovieInfoService);
+        } finally {
+            movieClientFactory.dispose();
+        }
+    }
+
+    private Mono<ClientResponse> reviewService(ClientRequest request) {
+        List<Long> movieInfoIds = UriComponentsBuilder.fromUri(request.url()).build()
+                .getQueryParams().get("movieInfoId").stream()
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+        requestedMovieInfoIds.add(movieInfoIds);
+        if (failNextRequest.getAndSet(false)) {
+            return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
+        List<Review> reviews = movieInfoIds.stream()
+                .map(movieInfoId -> new Review(movieInfoId, movieInfoId, "Awesome Movie", 8.9))
+                .collect(Collectors.toList());
+        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(toJson(reviews))
+                .build());
+    }
+
+    private static String toJson(List<Review> reviews) {
+        try {
+            return MovieCodecs.objectMapper().writeValueAsString(reviews);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.learnreactiveprogramming.service;
 
+import com.learnreactiveprogramming.util.BlockingScheduler;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.ParallelFlux;
 import reactor.test.StepVerifier;
@@ -64,4 +67,14 @@ class FluxAndMonoSchedulersServiceTest {
                 .verifyComplete();
     }
 
-}
\ No newline at end of file
+    @ParameterizedTest
+    @EnumSource(BlockingScheduler.class)
+    void explore_blockingOffload(BlockingScheduler blockingScheduler) {
+        Flux<String> stringFlux = service.explore_blockingOffload(blockingScheduler);
+
+        StepVerifier.create(stringFlux)
+                .expectNextCount(6)
+                .verifyComplete();
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.learnreactiveprogramming.service;
+
+import com.learnreactiveprogramming.domain.Movie;
+import com.learnreactiveprogramming.domain.MovieInfo;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieCatalogBroadcasterTest {
+
+    TestPublisher<Movie> catalog = TestPublisher.create();
+
+    @Test
+    void movies_sharesOneUpstreamAndReplaysToLateJoiners() {
+        MovieCatalogBroadcaster broadcaster = new MovieCatalogBroadcaster(catalog::flux, 1024, movie -> 100);
+        List<Long> subscriber1 = new CopyOnWriteArrayList<>();
+        List<Long> subscriber2 = new CopyOnWriteArrayList<>();
+
+        Disposable disposable1 = broadcaster.movies().subscribe(movie -> subscriber1.add(movie.getMovie().getMovieInfoId()));
+        catalog.next(movie(100L), movie(101L));
+        Disposable disposable2 = broadcaster.movies().subscribe(movie -> subscriber2.add(movie.getMovie().getMovieInfoId()));
+        catalog.next(movie(102L));
+
+        assertEquals(List.of(100L, 101L, 102L), subscriber1);
+        assertEquals(List.of(100L, 101L, 102L), subscriber2);
+        assertEquals(1, broadcaster.getUpstreamSubscriptionCount());
+
+        disposable1.dispose();
+        disposable2.dispose();
+
+        catalog.assertCancelled();
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void movies_boundsReplayByBytes() {
+        MovieCatalogBroadcaster broadcaster = new MovieCatalogBroadcaster(catalog::flux, 150, movie -> 100);
+        List<Long> lateJoiner = new CopyOnWriteArrayList<>();
+
+        broadcaster.movies().subscribe();
+        catalog.next(movie(100L), movie(101L));
+        broadcaster.movies().subscribe(movie -> lateJoiner.add(movie.getMovie().getMovieInfoId()));
+
+        assertEquals(List.of(101L), lateJoiner);
+        assertEquals(100, broadcaster.getReplayBytes());
+    }
+
+    @Test
+    void movies_cutsOffASubscriberThatFallsBehindByMoreThanTheReplay() {
+        MovieCatalogBroadcaster broadcaster = new MovieCatalogBroadcaster(catalog::flux, 150, movie -> 100);
+        List<Long> fastSubscriber = new CopyOnWriteArrayList<>();
+        broadcaster.movies().subscribe(movie -> fastSubscriber.add(movie.getMovie().getMovieInfoId()));
+
+        StepVerifier.create(broadcaster.movies(), 0) // never requests
+                .then(() -> catalog.next(movie(100L), movie(101L)))
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify(Duration.ofSeconds(1));
+
+        catalog.next(movie(102L));
+        assertEquals(List.of(100L, 101L, 102L), fastSubscriber);
+        assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test
+    void movies_subscriberAfterCompletionStartsAFreshAssembly() {
+        AtomicInteger fetches = new AtomicInteger();
+        MovieCatalogBroadcaster broadcaster = new MovieCatalogBroadcaster(
+                () -> fetches.incrementAndGet() == 1 ? Flux.just(movie(100L)) : Flux.just(movie(101L)), 1024, movie -> 100);
+
+        broadcaster.movies().subscribe();
+
+        StepVerifier.create(broadcaster.movies())
+                .assertNext(movie -> assertEquals(101L, movie.getMovie().getMovieInfoId())) // not the finished catalog's replay
+                .verifyComplete();
+        assertEquals(2, broadcaster.getUpstreamSubscriptionCount());
+    }
+
+    @Test
+    void movies_deliversOutsideTheLock() {
+        MovieCatalogBroadcaster synchronousBroadcaster = new MovieCatalogBroadcaster(() -> Flux.just(movie(100L), movie(101L)), 1024, movie -> 100);
+
+        StepVerifier.create(synchronousBroadcaster.movies().map(movie -> replayBytesFromAnotherThread(synchronousBroadcaster))) // connects and publishes inline
+                .expectNext(100L, 200L)
+                .verifyComplete();
+
+        MovieCatalogBroadcaster broadcaster = new MovieCatalogBroadcaster(catalog::flux, 1024, movie -> 100);
+        broadcaster.movies().subscribe();
+        catalog.next(movie(100L));
+
+        StepVerifier.create(broadcaster.movies().map(movie -> replayBytesFromAnotherThread(broadcaster))) // catches up from the replay
+                .expectNext(100L)
+                .thenCancel()
+                .verify();
+    }
+
+    private static long replayBytesFromAnotherThread(MovieCatalogBroadcaster broadcaster) { // times out if the delivery holds the lock
+        return CompletableFuture.supplyAsync(broadcaster::getReplayBytes).orTimeout(1, TimeUnit.SECONDS).join();
+    }
+
+    private Movie movie(Long movieInfoId) {
+        return new Movie(new MovieInfo(movieInfoId, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")), List.of());
+    }
+}
@@ -0,0 +1,112 @@
+package com.learnreactiveprogramming.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.learnreactiveprogramming.exception.RateLimitExceededException;
+import com.learnreactiveprogramming.util.RateLimit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieClientFactoryTest {
+
+    WireMockServer wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    MovieClientFactory movieClientFactory = new MovieClientFactory(MovieClientOptions.builder()
+            .poolName("pool-test")
+            .maxConnections(1)
+            .build());
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer.start();
+        wireMockServer.stubFor(get(urlPathEqualTo("/movies/v1/movie_infos/1"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{}")
+                        .withFixedDelay(500))); // keeps the connection acquired while the metrics are read
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+        movieClientFactory.dispose();
+    }
+
+    @Test
+    void getPoolMetrics_reportsTheConfiguredMaxConnections() {
+        MovieClientFactory.PoolMetrics poolMetrics = movieClientFactory.getPoolMetrics();
+
+        assertEquals(0, poolMetrics.getActive());
+        assertEquals(1, poolMetrics.getMaxConnections());
+    }
+
+    @Test
+    void getPoolMetrics_queuesRequestsBeyondMaxConnections() {
+        WebClient webClient = movieClientFactory.webClient("http://localhost:" + wireMockServer.port() + "/movies");
+        Disposable.Composite requests = Disposables.composite();
+
+        try {
+            for (int i = 0; i < 2; i++) {
+                requests.add(webClient.get().uri("/v1/movie_infos/{id}", 1).retrieve().bodyToMono(String.class).subscribe());
+            }
+
+            MovieClientFactory.PoolMetrics busy = awaitPoolMetrics(metrics -> metrics.getPending() == 1);
+            assertEquals(1, busy.getActive()); // the second request waits for the only connection
+            assertEquals(1, busy.getAllocated());
+
+            MovieClientFactory.PoolMetrics drained = awaitPoolMetrics(metrics -> metrics.getActive() == 0 && metrics.getPending() == 0);
+            assertEquals(1, drained.getIdle());
+            assertEquals(1, drained.getAllocated()); // both requests went over the same kept-alive connection
+        } finally {
+            requests.dispose();
+        }
+    }
+
+    @Test
+    void webClient_sharesTheRateLimitAcrossClients() {
+        MovieClientFactory rateLimitedFactory = new MovieClientFactory(MovieClientOptions.builder()
+                .poolName("rate-limit-test")
+                .rateLimit(RateLimit.of(1, 1).toBuilder().failFast(true).build())
+                .build());
+        try {
+            ExchangeFunction upstream = request -> Mono.just(ClientResponse.create(HttpStatus.OK).build());
+            String baseUrl = "http://localhost:" + wireMockServer.port() + "/movies";
+
+            StepVerifier.create(rateLimitedFactory.webClientBuilder(baseUrl).exchangeFunction(upstream).build()
+                            .get().uri("/v1/movie_infos/{id}", 1).retrieve().toBodilessEntity())
+                    .expectNextCount(1)
+                    .verifyComplete();
+            StepVerifier.create(rateLimitedFactory.webClientBuilder(baseUrl).exchangeFunction(upstream).build()
+                            .get().uri("/v1/movie_infos/{id}", 2).retrieve().toBodilessEntity())
+                    .expectError(RateLimitExceededException.class)
+                    .verify();
+            assertEquals(1, rateLimitedFactory.getRateLimitingFilter().getRejectedCount());
+        } finally {
+            rateLimitedFactory.dispose();
+        }
+    }
+
+    private MovieClientFactory.PoolMetrics awaitPoolMetrics(Predicate<MovieClientFactory.PoolMetrics> condition) {
+        return Flux.interval(Duration.ofMillis(10))
+                .map(tick -> movieClientFactory.getPoolMetrics())
+                .filter(condition)
+                .blockFirst(Duration.ofSeconds(5));
+    }
+}
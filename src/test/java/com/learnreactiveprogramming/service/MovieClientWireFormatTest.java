@@ -0,0 +1,98 @@
+package com.learnreactiveprogramming.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.domain.Review;
+import com.learnreactiveprogramming.util.MovieCodecs;
+import com.learnreactiveprogramming.util.WireFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+class MovieClientWireFormatTest {
+
+    WireMockServer wireMockServer = new WireMockServer(wireMockConfig().dynamicPort());
+    MovieClientFactory movieClientFactory;
+
+    List<MovieInfo> movieInfos = List.of(
+            new MovieInfo(1L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")),
+            new MovieInfo(2L, "The Dark Knight", 2008, List.of("Christian Bale", "HeathLedger"), LocalDate.parse("2008-07-18")));
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMockServer.stop();
+        if (movieClientFactory != null) {
+            movieClientFactory.dispose();
+        }
+    }
+
+    @Test
+    void smile_decodesBinaryMovieInfos() throws JsonProcessingException {
+        wireMockServer.stubFor(get(urlPathEqualTo("/movies/v1/movie_infos"))
+                .withHeader("Accept", containing("application/x-jackson-smile"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/x-jackson-smile")
+                        .withBody(MovieCodecs.smileMapper().writeValueAsBytes(movieInfos))));
+
+        MovieInfoService movieInfoService = new MovieInfoService(webClient(WireFormat.SMILE));
+
+        StepVerifier.create(movieInfoService.getAllMovieInfo_restClient().collectList())
+                .expectNext(movieInfos)
+                .verifyComplete();
+    }
+
+    @Test
+    void smile_decodesBinaryReviews() throws JsonProcessingException {
+        List<Review> reviews = List.of(new Review(1L, 1L, "Nolan is the real superhero", 8.2));
+        wireMockServer.stubFor(get(urlPathEqualTo("/movies/v1/reviews"))
+                .withHeader("Accept", containing("application/x-jackson-smile"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/x-jackson-smile")
+                        .withBody(MovieCodecs.smileMapper().writeValueAsBytes(reviews))));
+
+        ReviewService reviewService = new ReviewService(webClient(WireFormat.SMILE));
+
+        StepVerifier.create(reviewService.getReviews(1L).collectList())
+                .expectNext(reviews)
+                .verifyComplete();
+    }
+
+    @Test
+    void smile_fallsBackToJson() throws JsonProcessingException {
+        wireMockServer.stubFor(get(urlPathEqualTo("/movies/v1/movie_infos")) // a server that only speaks json
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(MovieCodecs.objectMapper().writeValueAsString(movieInfos))));
+
+        MovieInfoService movieInfoService = new MovieInfoService(webClient(WireFormat.SMILE));
+
+        StepVerifier.create(movieInfoService.getAllMovieInfo_restClient().collectList())
+                .expectNext(movieInfos)
+                .verifyComplete();
+    }
+
+    private WebClient webClient(WireFormat wireFormat) {
+        movieClientFactory = new MovieClientFactory(MovieClientOptions.builder()
+                .poolName("wire-format-test")
+                .wireFormat(wireFormat)
+                .build());
+        return movieClientFactory.webClient("http://localhost:" + wireMockServer.port() + "/movies");
+    }
+}
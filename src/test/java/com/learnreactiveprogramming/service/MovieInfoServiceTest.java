@@ -28,6 +28,16 @@ class MovieInfoServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void getAllMovieInfo_stream() {
+
+        Flux<MovieInfo> movieInfoFlux = movieInfoService.getAllMovieInfo_stream();
+
+        StepVerifier.create(movieInfoFlux)
+                .expectNextCount(7)
+                .verifyComplete();
+    }
+
     @Test
     void getMovieInfo() {
         long id = 1L;
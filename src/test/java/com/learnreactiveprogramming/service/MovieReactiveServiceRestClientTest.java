@@ -29,6 +29,20 @@ class MovieReactiveServiceRestClientTest {
                 .verifyComplete();
     }
 
+    @Test
+    void getMoviesWithReviewBatchUsingRest() {
+        Flux<Movie> moviesFlux = movieReactiveService.getMoviesWithReviewBatchUsingRest();
+
+        StepVerifier.create(moviesFlux)
+                .assertNext(movie -> {
+                    assertEquals(1L, movie.getMovie().getMovieInfoId());
+                    assertEquals(1, movie.getReviewBatch().size());
+                    assertEquals(8.2, movie.getReviewBatch().averageRating());
+                })
+                .expectNextCount(6)
+                .verifyComplete();
+    }
+
     @Test
     void getMovieById() {
         Long id = 1L;
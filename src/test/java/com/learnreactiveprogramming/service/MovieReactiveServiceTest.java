@@ -1,28 +1,52 @@
 package com.learnreactiveprogramming.service;
 
 import com.learnreactiveprogramming.domain.Movie;
+import com.learnreactiveprogramming.domain.MovieHeader;
+import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.domain.MovieStreamEvent;
+import com.learnreactiveprogramming.domain.Revenue;
+import com.learnreactiveprogramming.domain.Review;
+import com.learnreactiveprogramming.domain.ReviewBatch;
+import com.learnreactiveprogramming.domain.ReviewChunk;
+import com.learnreactiveprogramming.exception.DeadlineExceededException;
 import com.learnreactiveprogramming.exception.MovieException;
 import com.learnreactiveprogramming.exception.NetworkException;
 import com.learnreactiveprogramming.exception.ServiceException;
+import com.learnreactiveprogramming.util.BlockingScheduler;
+import com.learnreactiveprogramming.util.Deadline;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
+import reactor.test.publisher.PublisherProbe;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class MovieReactiveServiceTest {
 
-    @InjectMocks
-    MovieReactiveService movieReactiveService;
-
     @Mock
     ReviewService reviewService;
     @Mock
@@ -30,6 +54,13 @@ class MovieReactiveServiceTest {
     @Mock
     RevenueService revenueService;
 
+    MovieReactiveService movieReactiveService;
+
+    @BeforeEach
+    void setUp() {
+        movieReactiveService = new MovieReactiveService(reviewService, movieInfoService, revenueService);
+    }
+
     @Test
     void getAllMovies() {
         when(movieInfoService.retrieveMoviesFlux())
@@ -49,6 +80,131 @@ class MovieReactiveServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void getAllMovies_orderedWithBoundedConcurrency() {
+        MovieAssemblyOptions options = MovieAssemblyOptions.builder()
+                .concurrency(2)
+                .prefetch(1)
+                .ordered(true)
+                .build();
+        MovieReactiveService orderedService = new MovieReactiveService(reviewService, movieInfoService, revenueService, options);
+
+        when(movieInfoService.retrieveMoviesFlux())
+                .thenCallRealMethod();
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenCallRealMethod();
+
+        Flux<Long> movieInfoIds = orderedService.getAllMovies()
+                .map(movie -> movie.getMovie().getMovieInfoId());
+
+        StepVerifier.create(movieInfoIds)
+                .expectNext(100L, 101L, 102L)
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllMoviesParallel_keepsSourceOrder() {
+        MovieAssemblyOptions options = MovieAssemblyOptions.builder()
+                .parallelism(3)
+                .build();
+        MovieReactiveService parallelService = new MovieReactiveService(reviewService, movieInfoService, revenueService, options);
+        when(movieInfoService.retrieveMoviesFlux())
+                .thenCallRealMethod();
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenCallRealMethod();
+        when(revenueService.getRevenueReactive(anyLong()))
+                .thenAnswer(invocation -> {
+                    Long movieInfoId = invocation.getArgument(0);
+                    return Mono.just(Revenue.builder().movieInfoId(movieInfoId).budget(1000000).boxOffice(5000000).build())
+                            .delayElement(Duration.ofMillis((103L - movieInfoId) * 100)); // the last movie is enriched first
+                });
+
+        Flux<Movie> allMovies = parallelService.getAllMoviesParallel();
+
+        StepVerifier.create(allMovies)
+                .assertNext(movie -> assertEquals(100L, movie.getRevenue().getMovieInfoId()))
+                .assertNext(movie -> assertEquals(101L, movie.getRevenue().getMovieInfoId()))
+                .assertNext(movie -> assertEquals(102L, movie.getRevenue().getMovieInfoId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllMovies_statsOnly() {
+        MovieAssemblyOptions options = MovieAssemblyOptions.builder()
+                .statsOnly(true)
+                .build();
+        MovieReactiveService statsOnlyService = new MovieReactiveService(reviewService, movieInfoService, revenueService, options);
+        when(movieInfoService.retrieveMoviesFlux())
+                .thenCallRealMethod();
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenCallRealMethod();
+
+        Flux<Movie> allMovies = statsOnlyService.getAllMovies();
+
+        StepVerifier.create(allMovies)
+                .assertNext(movie -> {
+                    assertNull(movie.getReviewList());
+                    assertEquals(2, movie.getReviewStats().getCount());
+                    assertEquals(8.95, movie.getReviewStats().getMean(), 0.0001);
+                    assertEquals(8.9, movie.getReviewStats().getMin());
+                    assertEquals(9.0, movie.getReviewStats().getMax());
+                })
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllMoviesStream_headerThenReviewChunks() {
+        MovieAssemblyOptions options = MovieAssemblyOptions.builder()
+                .reviewChunkSize(1)
+                .build();
+        MovieReactiveService streamingService = new MovieReactiveService(reviewService, movieInfoService, revenueService, options);
+        when(movieInfoService.retrieveMoviesFlux())
+                .thenCallRealMethod();
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenCallRealMethod();
+
+        Flux<MovieStreamEvent> events = streamingService.getAllMoviesStream();
+
+        StepVerifier.create(events)
+                .assertNext(event -> assertEquals("Batman Begins", ((MovieHeader) event).getMovie().getName()))
+                .assertNext(event -> {
+                    ReviewChunk reviewChunk = (ReviewChunk) event;
+                    assertEquals(100L, reviewChunk.getMovieInfoId());
+                    assertEquals(0L, reviewChunk.getSequence());
+                    assertEquals(1, reviewChunk.getReviews().size());
+                })
+                .assertNext(event -> assertEquals(1L, ((ReviewChunk) event).getSequence()))
+                .assertNext(event -> assertEquals(101L, ((MovieHeader) event).getMovieInfoId()))
+                .expectNextCount(5)
+                .verifyComplete();
+    }
+
+    @Test
+    void getAllMoviesStream_slowSubscriberKeepsChunksFlushedByTheWindow() {
+        MovieAssemblyOptions options = MovieAssemblyOptions.builder()
+                .reviewChunkSize(2)
+                .reviewChunkWindow(Duration.ofMillis(100))
+                .build();
+        MovieReactiveService streamingService = new MovieReactiveService(reviewService, movieInfoService, revenueService, options);
+        when(movieInfoService.retrieveMoviesFlux())
+                .thenReturn(Flux.just(movieInfo(100L)));
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenReturn(Flux.just(new Review(1L, 100L, "Awesome Movie", 8.9), new Review(2L, 100L, "Excellent Movie", 9.0),
+                        new Review(3L, 100L, "Good Movie", 7.5)).concatWith(Flux.never())); // the rest of the reviews are slow to come
+
+        StepVerifier.withVirtualTime(streamingService::getAllMoviesStream, 0)
+                .thenRequest(1)
+                .assertNext(event -> assertEquals(100L, ((MovieHeader) event).getMovieInfoId()))
+                .thenRequest(1)
+                .assertNext(event -> assertEquals(2, ((ReviewChunk) event).getReviews().size())) // full chunk
+                .thenAwait(Duration.ofMillis(200)) // the window closes while the subscriber is not asking
+                .thenRequest(1)
+                .assertNext(event -> assertEquals(1, ((ReviewChunk) event).getReviews().size()))
+                .thenCancel()
+                .verify();
+    }
+
     @Test
     void negativeTestGetAllMovies() {
         when(movieInfoService.retrieveMoviesFlux())
@@ -65,6 +221,65 @@ class MovieReactiveServiceTest {
         verify(reviewService, times(6)).retrieveReviewsFlux(isA(Long.class));
     }
 
+    @Test
+    void getAllMovies_resumableRetryOnlyRetriesFailedMovie() {
+        MovieAssemblyOptions options = MovieAssemblyOptions.builder()
+                .resumableRetry(true)
+                .retryBackoff(Duration.ofMillis(1L))
+                .build();
+        MovieReactiveService resumableService = new MovieReactiveService(reviewService, movieInfoService, revenueService, options);
+
+        when(movieInfoService.retrieveMoviesFlux())
+                .thenCallRealMethod();
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenCallRealMethod();
+        when(reviewService.retrieveReviewsFlux(101L))
+                .thenThrow(NetworkException.class)
+                .thenCallRealMethod();
+
+        Flux<Movie> allMovies = resumableService.getAllMovies();
+
+        StepVerifier.create(allMovies)
+                .expectNextCount(3)
+                .verifyComplete();
+
+        verify(reviewService, times(1)).retrieveReviewsFlux(100L);
+        verify(reviewService, times(2)).retrieveReviewsFlux(101L); // the failed call and its retry
+        verify(reviewService, times(1)).retrieveReviewsFlux(102L);
+    }
+
+    @Test
+    void getAllMovies_resumableRetrySkipsAssembledMoviesOfAReorderedRefetch() {
+        MovieAssemblyOptions options = MovieAssemblyOptions.builder()
+                .resumableRetry(true)
+                .maxRetries(1L) // two catalog failures in total, but never two in a row
+                .retryBackoff(Duration.ofMillis(1L))
+                .build();
+        MovieReactiveService resumableService = new MovieReactiveService(reviewService, movieInfoService, revenueService, options);
+        AtomicInteger fetches = new AtomicInteger();
+        when(movieInfoService.retrieveMoviesFlux())
+                .thenReturn(Flux.defer(() -> {
+                    switch (fetches.incrementAndGet()) {
+                        case 1:
+                            return Flux.just(movieInfo(100L)).concatWith(Flux.error(new NetworkException("catalog dropped")));
+                        case 2:
+                            return Flux.just(movieInfo(101L), movieInfo(100L)).concatWith(Flux.error(new NetworkException("catalog dropped")));
+                        default:
+                            return Flux.just(movieInfo(102L), movieInfo(100L), movieInfo(101L));
+                    }
+                }));
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenCallRealMethod();
+
+        StepVerifier.create(resumableService.getAllMovies().map(movie -> movie.getMovie().getMovieInfoId()).collectList())
+                .assertNext(movieInfoIds -> assertEquals(Set.of(100L, 101L, 102L), Set.copyOf(movieInfoIds)))
+                .verifyComplete();
+
+        verify(reviewService, times(1)).retrieveReviewsFlux(100L);
+        verify(reviewService, times(1)).retrieveReviewsFlux(101L);
+        verify(reviewService, times(1)).retrieveReviewsFlux(102L);
+    }
+
     @Test
     void getMovieById() {
         long id = 100L;
@@ -81,6 +296,108 @@ class MovieReactiveServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void getMovieByIdBlocking_onVirtualThreads() {
+        MovieAssemblyOptions options = MovieAssemblyOptions.builder()
+                .blockingScheduler(BlockingScheduler.VIRTUAL_THREADS) // falls back to boundedElastic before Java 21
+                .build();
+        MovieReactiveService virtualThreadService = new MovieReactiveService(reviewService, movieInfoService, revenueService, options);
+        when(movieInfoService.retrieveMovieUsingId(anyLong()))
+                .thenCallRealMethod();
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenCallRealMethod();
+
+        Flux<Movie> movies = Flux.range(0, 50)
+                .flatMap(i -> virtualThreadService.getMovieByIdBlocking(100L)); // 50 blocking lookups of one second each
+
+        StepVerifier.create(movies)
+                .expectNextCount(50)
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void getMovieByIdUsingRest_coalescesConcurrentLookups() {
+        MovieInfo movieInfo = new MovieInfo(1L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        when(movieInfoService.getMovieInfo(anyLong()))
+                .thenReturn(Mono.just(movieInfo).delayElement(Duration.ofMillis(100)));
+        when(reviewService.getReviewsForMovies(anyCollection()))
+                .thenReturn(Flux.just(new Review(1L, 1L, "Awesome Movie", 8.9)));
+
+        Flux<Movie> movies = Flux.range(0, 20)
+                .flatMap(i -> movieReactiveService.getMovieByIdUsingRest(1L));
+
+        StepVerifier.create(movies)
+                .expectNextCount(20)
+                .verifyComplete();
+
+        verify(movieInfoService, times(1)).getMovieInfo(1L);
+        assertEquals(0.95, movieReactiveService.getMovieByIdCoalescingStats().coalescingRatio(), 0.0001);
+    }
+
+    @Test
+    void getMovieByIdUsingRest_coalescedCallersKeepTheirOwnDeadlines() {
+        MovieInfo movieInfo = new MovieInfo(1L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        when(movieInfoService.getMovieInfo(anyLong()))
+                .thenReturn(Mono.just(movieInfo)
+                        .delayElement(Duration.ofMillis(300))
+                        .transform(Deadline.enforce("movieInfo.byId.rest"))); // like the rest client, enforces whatever deadline it subscribes with
+        when(reviewService.getReviewsForMovies(anyCollection()))
+                .thenReturn(Flux.just(new Review(1L, 1L, "Awesome Movie", 8.9)));
+
+        AtomicReference<CompletableFuture<Movie>> patient = new AtomicReference<>();
+
+        StepVerifier.create(movieReactiveService.getMovieByIdUsingRest(1L, Duration.ofMillis(100))) // starts the shared lookup
+                .then(() -> patient.set(movieReactiveService.getMovieByIdUsingRest(1L, Duration.ofSeconds(2)).toFuture()))
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(1));
+        assertEquals("Batman Begins", patient.get().join().getMovie().getName());
+
+        verify(movieInfoService, times(1)).getMovieInfo(1L);
+    }
+
+    @Test
+    void warmStart_servesLookupsFromTheSnapshot(@TempDir Path snapshotDir) {
+        MovieSnapshotStore snapshotStore = new MovieSnapshotStore(snapshotDir.resolve("movies.snapshot"));
+        MovieInfo movieInfo = new MovieInfo(1L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        snapshotStore.save(List.of(new Movie(movieInfo, List.of(new Review(1L, 1L, "Awesome Movie", 8.9))))).block();
+        when(movieInfoService.getAllMovieInfo_restClient())
+                .thenReturn(Flux.never()); // the refresh is still running
+
+        StepVerifier.create(movieReactiveService.warmStart(snapshotStore))
+                .expectNext(1)
+                .verifyComplete();
+        Disposable refresh = movieReactiveService.refreshWarmMovies().subscribe();
+        StepVerifier.create(movieReactiveService.getMovieByIdUsingRest(1L))
+                .assertNext(movie -> assertEquals("Batman Begins", movie.getMovie().getName()))
+                .verifyComplete();
+        refresh.dispose();
+
+        verify(movieInfoService, never()).getMovieInfo(anyLong());
+    }
+
+    @Test
+    void refreshWarmMovies_failedRefreshStopsServingTheSnapshot(@TempDir Path snapshotDir) {
+        MovieSnapshotStore snapshotStore = new MovieSnapshotStore(snapshotDir.resolve("movies.snapshot"));
+        MovieInfo movieInfo = new MovieInfo(1L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        snapshotStore.save(List.of(new Movie(movieInfo, List.of(new Review(1L, 1L, "Awesome Movie", 8.9))))).block();
+        when(movieInfoService.getAllMovieInfo_restClient())
+                .thenReturn(Flux.error(new NetworkException("movie info service down")));
+        when(movieInfoService.getMovieInfo(anyLong()))
+                .thenReturn(Mono.error(new NetworkException("movie info service down")));
+        MovieReactiveService warmService = new MovieReactiveService(reviewService, movieInfoService, revenueService,
+                MovieAssemblyOptions.builder().maxRetries(0L).build());
+
+        warmService.warmStart(snapshotStore).block();
+        StepVerifier.create(warmService.refreshWarmMovies())
+                .expectError(MovieException.class)
+                .verify();
+
+        StepVerifier.create(warmService.getMovieByIdUsingRest(1L)) // goes to the services instead of the stale snapshot
+                .expectError(NetworkException.class)
+                .verify();
+    }
+
     @Test
     void getAllMoviesRetryWhen1() {
         when(movieInfoService.retrieveMoviesFlux())
@@ -150,6 +467,25 @@ class MovieReactiveServiceTest {
         verify(reviewService, times(9)).retrieveReviewsFlux(isA(Long.class));
     }
 
+    @Test
+    void getAllMoviesRepeat_dropPolicyLeavesParallelTimersRunning() {
+        when(movieInfoService.retrieveMoviesFlux())
+                .thenCallRealMethod();
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenCallRealMethod();
+
+        Disposable endlessCatalog = movieReactiveService.getAllMoviesRepeat(BackpressurePolicy.dropOldest(10))
+                .subscribe(); // unbounded demand, the producer never waits
+        try {
+            Flux.range(0, Schedulers.DEFAULT_POOL_SIZE * 2) // the parallel scheduler hands out its workers round robin, every one gets a timer
+                    .flatMap(i -> Mono.delay(Duration.ofMillis(10), Schedulers.parallel()))
+                    .then()
+                    .block(Duration.ofSeconds(2));
+        } finally {
+            endlessCatalog.dispose();
+        }
+    }
+
     @Test
     void getMovieByIdWithRevenue() {
         long id = 100L;
@@ -158,8 +494,12 @@ class MovieReactiveServiceTest {
                 .thenCallRealMethod();
         when(reviewService.retrieveReviewsFlux(anyLong()))
                 .thenCallRealMethod();
-        when(revenueService.getRevenue(anyLong()))
-                .thenCallRealMethod();
+        when(revenueService.getRevenueReactive(anyLong()))
+                .thenReturn(Mono.just(Revenue.builder()
+                        .movieInfoId(id)
+                        .budget(1000000)
+                        .boxOffice(5000000)
+                        .build()));
 
         Mono<Movie> movieById = movieReactiveService.getMovieByIdWithRevenue(id);
 
@@ -172,4 +512,109 @@ class MovieReactiveServiceTest {
                 })
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getMovieByIdWithRevenue_deadlineCancelsTheSlowRevenueCall() {
+        PublisherProbe<Revenue> slowRevenue = PublisherProbe.of(Mono.never());
+        when(movieInfoService.retrieveMovieInfoMonoUsingId(anyLong()))
+                .thenCallRealMethod();
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenCallRealMethod();
+        when(revenueService.getRevenueReactive(anyLong()))
+                .thenReturn(slowRevenue.mono());
+
+        Mono<Movie> movieById = movieReactiveService.getMovieByIdWithRevenue(100L, Duration.ofMillis(200));
+
+        StepVerifier.create(movieById)
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(2));
+        slowRevenue.assertWasCancelled();
+    }
+
+    @Test
+    void getMovieByIdWithRevenue_revenueBudgetReturnsPartialMovie() {
+        PublisherProbe<Revenue> slowRevenue = PublisherProbe.of(Mono.never());
+        when(movieInfoService.retrieveMovieInfoMonoUsingId(anyLong()))
+                .thenCallRealMethod();
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenCallRealMethod();
+        when(revenueService.getRevenueReactive(anyLong()))
+                .thenReturn(slowRevenue.mono());
+        MovieReactiveService degradingService = new MovieReactiveService(reviewService, movieInfoService, revenueService,
+                MovieAssemblyOptions.builder().revenueBudget(Duration.ofMillis(100)).build());
+
+        StepVerifier.create(degradingService.getMovieByIdWithRevenue(100L))
+                .assertNext(movie -> {
+                    assertEquals(100L, movie.getMovie().getMovieInfoId());
+                    assertNotEquals(0, movie.getReviewList().size());
+                    assertNull(movie.getRevenue());
+                    assertFalse(movie.isComplete());
+                })
+                .verifyComplete();
+        slowRevenue.assertWasCancelled();
+    }
+
+    @Test
+    void getMovieById_reviewBudgetReturnsMovieWithoutReviews() {
+        when(movieInfoService.retrieveMovieInfoMonoUsingId(anyLong()))
+                .thenCallRealMethod();
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenReturn(Flux.never());
+        MovieReactiveService degradingService = new MovieReactiveService(reviewService, movieInfoService, revenueService,
+                MovieAssemblyOptions.builder().reviewBudget(Duration.ofMillis(100)).build());
+
+        StepVerifier.create(degradingService.getMovieById(100L))
+                .assertNext(movie -> {
+                    assertEquals(100L, movie.getMovie().getMovieInfoId());
+                    assertTrue(movie.getReviewList().isEmpty());
+                    assertFalse(movie.isComplete());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void getMovieById_reviewBudgetLetsOtherErrorsThrough() {
+        when(movieInfoService.retrieveMovieInfoMonoUsingId(anyLong()))
+                .thenCallRealMethod();
+        when(reviewService.retrieveReviewsFlux(anyLong()))
+                .thenReturn(Flux.error(new NetworkException("review service blip")));
+        MovieReactiveService degradingService = new MovieReactiveService(reviewService, movieInfoService, revenueService,
+                MovieAssemblyOptions.builder().reviewBudget(Duration.ofMillis(100)).build());
+
+        StepVerifier.create(degradingService.getMovieById(100L)) // left to the retries instead of an incomplete movie
+                .expectError(NetworkException.class)
+                .verify();
+    }
+
+    @Test
+    void getMoviesWithReviewBatchUsingRest_batchesByTheOptionAndRetriesTheCatalog() {
+        when(movieInfoService.getAllMovieInfo_restClient())
+                .thenReturn(Flux.just(movieInfo(1L), movieInfo(2L), movieInfo(3L)));
+        List<List<Long>> requestedBatches = new CopyOnWriteArrayList<>();
+        AtomicInteger calls = new AtomicInteger();
+        when(reviewService.getReviewBatch(anyCollection()))
+                .thenAnswer(invocation -> {
+                    List<Long> movieInfoIds = List.copyOf(invocation.<Collection<Long>>getArgument(0));
+                    if (calls.getAndIncrement() == 0) {
+                        return Mono.error(new NetworkException("review service blip"));
+                    }
+                    requestedBatches.add(movieInfoIds);
+                    return Mono.just(ReviewBatch.of(movieInfoIds.stream()
+                            .map(movieInfoId -> new Review(movieInfoId, movieInfoId, "Awesome Movie", 8.9))
+                            .collect(Collectors.toList())));
+                });
+        MovieReactiveService batchService = new MovieReactiveService(reviewService, movieInfoService, revenueService,
+                MovieAssemblyOptions.builder().reviewBatchSize(2).ordered(true).build());
+
+        StepVerifier.create(batchService.getMoviesWithReviewBatchUsingRest())
+                .assertNext(movie -> assertEquals(List.of(new Review(1L, 1L, "Awesome Movie", 8.9)), movie.getReviewBatch().toReviews()))
+                .assertNext(movie -> assertEquals(2L, movie.getReviewBatch().getMovieInfoId(0)))
+                .assertNext(movie -> assertEquals(3L, movie.getReviewBatch().getMovieInfoId(0)))
+                .verifyComplete();
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), requestedBatches);
+    }
+
+    private static MovieInfo movieInfo(long movieInfoId) {
+        return new MovieInfo(movieInfoId, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.learnreactiveprogramming.service;
+
+import com.learnreactiveprogramming.domain.Movie;
+import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.domain.Revenue;
+import com.learnreactiveprogramming.domain.Review;
+import com.learnreactiveprogramming.domain.ReviewBatch;
+import com.learnreactiveprogramming.domain.ReviewStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class MovieSnapshotStoreTest {
+
+    @TempDir
+    Path snapshotDir;
+
+    @Test
+    void saveAndLoad_roundTripsMovies() {
+        MovieSnapshotStore snapshotStore = new MovieSnapshotStore(snapshotDir.resolve("movies.snapshot"));
+        MovieInfo batmanBegins = new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+        Movie withReviews = new Movie(batmanBegins, List.of(new Review(1L, 100L, "Awesome Movie", 8.9),
+                new Review(2L, 100L, null, null)), new Revenue(100L, 1000000, 5000000), null, null, false);
+        Movie withReviewBatch = new Movie(new MovieInfo(101L, "The Dark Knight", null, null, null),
+                ReviewBatch.of(List.of(new Review(3L, 101L, "Excellent Movie", 9.0))));
+        Movie withStats = new Movie(new MovieInfo(102L, "Dark Knight Rises", 2012, List.of(), LocalDate.parse("2012-07-20")),
+                new ReviewStats(2, 2, 8.95, 8.9, 9.0, 8.9, 9.0));
+        List<Movie> movies = List.of(withReviews, withReviewBatch, withStats);
+
+        StepVerifier.create(snapshotStore.save(movies).then(snapshotStore.load()))
+                .expectNext(movies)
+                .verifyComplete();
+        assertFalse(Files.exists(snapshotDir.resolve("movies.snapshot.tmp")));
+    }
+
+    @Test
+    void load_withoutSnapshot() {
+        MovieSnapshotStore snapshotStore = new MovieSnapshotStore(snapshotDir.resolve("missing.snapshot"));
+
+        StepVerifier.create(snapshotStore.load())
+                .verifyComplete();
+    }
+
+    @Test
+    void load_rejectsOtherFiles() throws IOException {
+        Path notASnapshot = Files.writeString(snapshotDir.resolve("movies.json"), "[{\"movieInfoId\":1}, {\"movieInfoId\":2}]");
+        MovieSnapshotStore snapshotStore = new MovieSnapshotStore(notASnapshot);
+
+        StepVerifier.create(snapshotStore.load())
+                .expectError(IOException.class)
+                .verify();
+    }
+
+    @Test
+    void save_replacesThePreviousSnapshot() {
+        MovieSnapshotStore snapshotStore = new MovieSnapshotStore(snapshotDir.resolve("movies.snapshot"));
+        Movie movie = new Movie(new MovieInfo(100L, "Batman Begins", 2005, List.of(), null), List.of());
+
+        StepVerifier.create(snapshotStore.save(List.of(movie, movie))
+                        .then(snapshotStore.save(List.of(movie)))
+                        .then(snapshotStore.load()))
+                .assertNext(loaded -> assertEquals(1, loaded.size()))
+                .verifyComplete();
+    }
+}
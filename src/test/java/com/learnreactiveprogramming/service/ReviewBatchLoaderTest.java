@@ -0,0 +1,113 @@
+package com.learnreactiveprogramming.service;
+
+import com.learnreactiveprogramming.domain.Review;
+import com.learnreactiveprogramming.util.Deadline;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.PublisherProbe;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReviewBatchLoaderTest {
+
+    List<Collection<Long>> requestedBatches = new CopyOnWriteArrayList<>();
+
+    ReviewBatchLoader reviewBatchLoader = new ReviewBatchLoader(movieInfoIds -> {
+        requestedBatches.add(List.copyOf(movieInfoIds));
+        return Flux.fromIterable(movieInfoIds)
+                .map(movieInfoId -> new Review(movieInfoId, movieInfoId, "Awesome Movie", 8.9));
+    }, 3, Duration.ofMillis(50), Schedulers.parallel());
+
+    @Test
+    void load_batchesUpToMaxBatchSize() {
+        Flux<List<Review>> reviews = Flux.just(1L, 2L, 3L, 4L, 5L, 6L, 7L)
+                .flatMap(reviewBatchLoader::load);
+
+        StepVerifier.create(reviews)
+                .expectNextCount(7)
+                .verifyComplete();
+
+        assertEquals(3, requestedBatches.size()); // [1, 2, 3], [4, 5, 6] and [7] after the window elapsed
+        assertEquals(7, reviewBatchLoader.getLoadCount());
+        assertEquals(3, reviewBatchLoader.getBatchCount());
+    }
+
+    @Test
+    void load_fansResultsOutToEveryCaller() {
+        Flux<List<Review>> reviews = Flux.just(1L, 1L)
+                .flatMap(reviewBatchLoader::load);
+
+        StepVerifier.create(reviews)
+                .assertNext(reviewList -> assertEquals(1L, reviewList.get(0).getMovieInfoId()))
+                .assertNext(reviewList -> assertEquals(1L, reviewList.get(0).getMovieInfoId()))
+                .verifyComplete();
+
+        assertEquals(List.of(List.of(1L)), requestedBatches);
+    }
+
+    @Test
+    void load_propagatesBatchFailureToEveryCaller() {
+        ReviewBatchLoader failingLoader = new ReviewBatchLoader(movieInfoIds -> Flux.error(new IllegalStateException("Review service is down")),
+                3, Duration.ofMillis(50), Schedulers.parallel());
+
+        StepVerifier.create(Flux.just(1L, 2L).flatMap(failingLoader::load))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    void load_leavesCancelledLookupsOutOfTheBatch() {
+        Disposable cancelled = reviewBatchLoader.load(1L).subscribe();
+        cancelled.dispose(); // before the window elapsed
+
+        StepVerifier.create(reviewBatchLoader.load(2L))
+                .assertNext(reviewList -> assertEquals(2L, reviewList.get(0).getMovieInfoId()))
+                .verifyComplete();
+
+        assertEquals(List.of(List.of(2L)), requestedBatches);
+    }
+
+    @Test
+    void load_cancelsTheBatchRequestOnceEveryCallerLeft() {
+        PublisherProbe<Review> slowReviews = PublisherProbe.of(Flux.never());
+        ReviewBatchLoader slowLoader = new ReviewBatchLoader(movieInfoIds -> slowReviews.flux(), 3, Duration.ofMillis(10), Schedulers.parallel());
+
+        StepVerifier.create(Flux.just(1L, 2L).flatMap(slowLoader::load))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100)) // the window elapsed, the batch is in flight
+                .then(slowReviews::assertWasSubscribed)
+                .thenCancel()
+                .verify();
+
+        slowReviews.assertWasCancelled();
+    }
+
+    @Test
+    void load_carriesTheCallersDeadlinesToTheBatch() {
+        List<Optional<Deadline>> batchDeadlines = new CopyOnWriteArrayList<>();
+        ReviewBatchLoader deadlineLoader = new ReviewBatchLoader(movieInfoIds -> Flux.deferContextual(context -> {
+            batchDeadlines.add(Deadline.current(context));
+            return Flux.<Review>empty();
+        }), 3, Duration.ofMillis(10), Schedulers.parallel());
+
+        Flux.just(1L, 2L)
+                .flatMap(movieInfoId -> deadlineLoader.load(movieInfoId)
+                        .contextWrite(Deadline.within(Duration.ofSeconds(movieInfoId * 10))))
+                .blockLast();
+        Flux.merge(deadlineLoader.load(3L).contextWrite(Deadline.within(Duration.ofSeconds(10))), deadlineLoader.load(4L))
+                .blockLast();
+
+        assertTrue(batchDeadlines.get(0).orElseThrow().remaining().compareTo(Duration.ofSeconds(10)) > 0); // the latest, 20s of movie 2, movie 1 alone would cut it short
+        assertEquals(Optional.empty(), batchDeadlines.get(1)); // 4 is willing to wait
+    }
+}
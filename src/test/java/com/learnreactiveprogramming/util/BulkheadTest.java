@@ -0,0 +1,101 @@
+package com.learnreactiveprogramming.util;
+
+import com.learnreactiveprogramming.exception.BulkheadFullException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadTest {
+
+    Bulkhead bulkhead = new Bulkhead("test", 1, 1);
+
+    @AfterEach
+    void tearDown() {
+        bulkhead.dispose();
+    }
+
+    @Test
+    void call_rejectsWhenRunningAndQueuedCallsAreExhausted() {
+        CountDownLatch release = new CountDownLatch(1);
+        Mono<String> blockingCall = bulkhead.call(() -> {
+            release.await();
+            return "revenue";
+        });
+
+        blockingCall.subscribe(); // running
+        blockingCall.subscribe(); // queued
+
+        StepVerifier.create(blockingCall)
+                .expectError(BulkheadFullException.class)
+                .verify();
+        assertEquals(1, bulkhead.getRejectedCount());
+
+        release.countDown();
+    }
+
+    @Test
+    void call_releasesPermitOnCompletion() {
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(bulkhead.call(() -> "revenue"))
+                    .expectNext("revenue")
+                    .verifyComplete();
+        }
+
+        assertEquals(0, bulkhead.getRejectedCount());
+    }
+
+    @Test
+    void call_keepsThePermitUntilACancelledCallReturns() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Disposable running = bulkhead.call(() -> {
+            started.countDown();
+            awaitIgnoringInterrupts(release); // like a driver call that does not stop on interrupt
+            return "revenue";
+        }).subscribe();
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        running.dispose();
+        assertEquals(1, bulkhead.getInFlightCount()); // its thread is still taken
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (bulkhead.getInFlightCount() != 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, bulkhead.getInFlightCount());
+    }
+
+    @Test
+    void call_releasesThePermitOfACallCancelledWhileQueued() {
+        CountDownLatch release = new CountDownLatch(1);
+        bulkhead.call(() -> {
+            awaitIgnoringInterrupts(release);
+            return "revenue";
+        }).subscribe(); // running
+
+        bulkhead.call(() -> "revenue").subscribe().dispose(); // queued, then cancelled
+
+        assertEquals(1, bulkhead.getInFlightCount());
+        release.countDown();
+    }
+
+    private static void awaitIgnoringInterrupts(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException e) {
+                // keep blocking
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.learnreactiveprogramming.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CodePointFluxTest {
+
+    @Test
+    void of_emitsOneStringPerCharacter() {
+        StepVerifier.create(CodePointFlux.of("Alex"))
+                .expectNext("A", "l", "e", "x")
+                .verifyComplete();
+    }
+
+    @Test
+    void of_keepsSurrogatePairsTogether() {
+        StepVerifier.create(CodePointFlux.of("a🎬b")) // clapper board emoji between two letters
+                .expectNext("a", "🎬", "b")
+                .verifyComplete();
+    }
+
+    @Test
+    void of_reusesLatin1Strings() {
+        String first = CodePointFlux.of("Ben").blockFirst();
+        String second = CodePointFlux.of("Bob").blockFirst();
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void of_emptyText() {
+        StepVerifier.create(CodePointFlux.of(""))
+                .verifyComplete();
+    }
+}
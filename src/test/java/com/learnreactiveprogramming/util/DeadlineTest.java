@@ -0,0 +1,75 @@
+package com.learnreactiveprogramming.util;
+
+import com.learnreactiveprogramming.exception.DeadlineExceededException;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.PublisherProbe;
+
+import java.time.Duration;
+
+class DeadlineTest {
+
+    @Test
+    void enforce_withoutDeadline() {
+        Mono<String> hop = Mono.just("Batman Begins")
+                .transform(Deadline.enforce("movieInfo"));
+
+        StepVerifier.create(hop)
+                .expectNext("Batman Begins")
+                .verifyComplete();
+    }
+
+    @Test
+    void enforce_cancelsTheHopOnceTheDeadlineExpired() {
+        PublisherProbe<String> slowHop = PublisherProbe.of(Mono.never());
+
+        Mono<String> hop = slowHop.mono()
+                .transform(Deadline.enforce("reviews"))
+                .contextWrite(Deadline.within(Duration.ofMillis(100)));
+
+        StepVerifier.create(hop)
+                .expectErrorMatches(throwable -> throwable instanceof DeadlineExceededException
+                        && throwable.getMessage().equals("Deadline exceeded in reviews"))
+                .verify(Duration.ofSeconds(1));
+        slowHop.assertWasCancelled();
+    }
+
+    @Test
+    void enforce_appliesOneDeadlineToTheWholeFlux() {
+        Flux<Long> hop = Flux.interval(Duration.ofMillis(100))
+                .take(10)
+                .transform(Deadline.enforce("catalog"))
+                .contextWrite(Deadline.within(Duration.ofMillis(250))); // a per element timeout would never fire
+
+        StepVerifier.create(hop)
+                .expectNext(0L, 1L)
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void within_keepsTheCallersEarlierDeadline() {
+        Mono<String> hop = Mono.<String>never()
+                .transform(Deadline.enforce("revenue"))
+                .contextWrite(Deadline.within(Duration.ofSeconds(10)))
+                .contextWrite(Deadline.within(Duration.ofMillis(50))); // the caller's deadline, written first
+
+        StepVerifier.create(hop)
+                .expectError(DeadlineExceededException.class)
+                .verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void enforce_doesNotStartAHopPastTheDeadline() {
+        PublisherProbe<String> hop = PublisherProbe.of(Mono.just("Batman Begins"));
+
+        StepVerifier.create(hop.mono()
+                        .transform(Deadline.enforce("movieInfo"))
+                        .contextWrite(Deadline.within(Duration.ZERO)))
+                .expectError(DeadlineExceededException.class)
+                .verify();
+        hop.assertWasNotSubscribed();
+    }
+}
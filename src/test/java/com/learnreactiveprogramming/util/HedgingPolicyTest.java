@@ -0,0 +1,74 @@
+package com.learnreactiveprogramming.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgingPolicyTest {
+
+    AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    void hedge_firesSecondRequestWhenPrimaryIsSlow() {
+        HedgingPolicy hedgingPolicy = HedgingPolicy.of(Duration.ofMillis(50), 100);
+
+        StepVerifier.create(hedgingPolicy.hedge(this::slowThenFastRequest))
+                .expectNext("fast")
+                .verifyComplete();
+
+        assertEquals(2, attempts.get());
+        assertEquals(1, hedgingPolicy.getHedgesFiredCount());
+        assertEquals(1, hedgingPolicy.getHedgesWonCount());
+    }
+
+    @Test
+    void hedge_respectsBudget() {
+        HedgingPolicy hedgingPolicy = HedgingPolicy.of(Duration.ofMillis(50), 0);
+
+        StepVerifier.create(hedgingPolicy.hedge(this::slowThenFastRequest))
+                .expectNext("slow")
+                .verifyComplete();
+
+        assertEquals(1, attempts.get());
+        assertEquals(0, hedgingPolicy.getHedgesFiredCount());
+    }
+
+    @Test
+    void hedge_skipsHedgeWhenPrimaryIsFast() {
+        HedgingPolicy hedgingPolicy = HedgingPolicy.of(Duration.ofMillis(500), 100);
+
+        StepVerifier.create(hedgingPolicy.hedge(() -> Mono.just("fast")))
+                .expectNext("fast")
+                .verifyComplete();
+
+        assertEquals(0, hedgingPolicy.getHedgesFiredCount());
+    }
+
+    @Test
+    void hedge_budgetOnlyCoversRecentRequests() {
+        HedgingPolicy hedgingPolicy = HedgingPolicy.of(Duration.ofMillis(10), 10);
+        for (int i = 0; i < 10_000; i++) {
+            hedgingPolicy.hedge(() -> Mono.just("fast")).block(); // would bank 1000 hedges with a lifetime ratio
+        }
+
+        Flux.range(0, 200)
+                .flatMap(i -> hedgingPolicy.hedge(() -> Mono.delay(Duration.ofMillis(200)).thenReturn("slow")))
+                .blockLast();
+
+        assertEquals(10_200, hedgingPolicy.getRequestCount());
+        assertTrue(hedgingPolicy.getHedgesFiredCount() <= 100, "fired " + hedgingPolicy.getHedgesFiredCount()); // 10% of the last 1000 at most
+    }
+
+    private Mono<String> slowThenFastRequest() {
+        return Mono.defer(() -> attempts.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(500)).thenReturn("slow")
+                : Mono.just("fast"));
+    }
+}
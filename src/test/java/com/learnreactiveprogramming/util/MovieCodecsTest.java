@@ -0,0 +1,33 @@
+package com.learnreactiveprogramming.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.learnreactiveprogramming.domain.MovieInfo;
+import com.learnreactiveprogramming.domain.Review;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MovieCodecsTest {
+
+    @Test
+    void objectMapper_readsMovieInfo() throws JsonProcessingException {
+        String json = "{\"movieInfoId\":1,\"name\":\"Batman Begins\",\"year\":2005,"
+                + "\"cast\":[\"Christian Bale\",\"Michael Cane\"],\"release_date\":\"2005-06-15\",\"rating\":\"PG-13\"}";
+
+        MovieInfo movieInfo = MovieCodecs.objectMapper().readValue(json, MovieInfo.class);
+
+        assertEquals(new MovieInfo(1L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15")), movieInfo);
+    }
+
+    @Test
+    void objectMapper_roundTripsReview() throws JsonProcessingException {
+        Review review = new Review(1L, 1L, "Nolan is the real superhero", 8.2);
+
+        String json = MovieCodecs.objectMapper().writeValueAsString(review);
+
+        assertEquals(review, MovieCodecs.objectMapper().readValue(json, Review.class));
+    }
+}
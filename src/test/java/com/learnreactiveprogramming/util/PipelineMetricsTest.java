@@ -0,0 +1,69 @@
+package com.learnreactiveprogramming.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PipelineMetricsTest {
+
+    PipelineMetrics metrics = new PipelineMetrics();
+
+    @Test
+    void of_recordsFluxSignals() {
+        Flux<Integer> numbers = Flux.range(1, 3)
+                .transform(metrics.stage("test.flux"));
+
+        StepVerifier.create(numbers)
+                .expectNext(1, 2, 3)
+                .verifyComplete();
+        StepVerifier.create(numbers, 1)
+                .expectNext(1)
+                .thenCancel()
+                .verify();
+
+        PipelineMetrics.Snapshot snapshot = metrics.get("test.flux");
+        assertEquals(2, snapshot.getSubscribeCount());
+        assertEquals(4, snapshot.getOnNextCount());
+        assertEquals(1, snapshot.getCompleteCount());
+        assertEquals(1, snapshot.getCancelCount());
+        assertTrue(snapshot.latencyPercentile(0.99).toNanos() > 0);
+    }
+
+    @Test
+    void of_recordsMonoErrors() {
+        Mono<String> failing = Mono.<String>error(new IllegalStateException("Error occurred"))
+                .transform(metrics.stage("test.mono"));
+
+        StepVerifier.create(failing)
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        PipelineMetrics.Snapshot snapshot = metrics.get("test.mono");
+        assertEquals(1, snapshot.getSubscribeCount());
+        assertEquals(1, snapshot.getErrorCount());
+        assertEquals(0, snapshot.getOnNextCount());
+    }
+
+    @Test
+    void stage_countsPerRegistryAndStartsOverAfterReset() {
+        PipelineMetrics otherMetrics = new PipelineMetrics();
+        Mono<String> movie = Mono.just("Batman Begins")
+                .transform(metrics.stage("test.scoped"));
+
+        movie.block();
+        Mono.just("The Dark Knight").transform(otherMetrics.stage("test.scoped")).block();
+
+        assertEquals(1, metrics.get("test.scoped").getSubscribeCount());
+        assertEquals(1, otherMetrics.get("test.scoped").getSubscribeCount());
+
+        metrics.reset();
+        assertNull(metrics.get("test.scoped"));
+        movie.block(); // assembled before the reset
+        assertEquals(1, metrics.get("test.scoped").getSubscribeCount());
+    }
+}
@@ -0,0 +1,123 @@
+package com.learnreactiveprogramming.util;
+
+import com.learnreactiveprogramming.exception.RateLimitExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RateLimitingFilterTest {
+
+    static final ClientRequest REVIEWS = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost:8080/movies/v1/reviews?movieInfoId=1")).build();
+    static final ClientRequest MOVIE_INFOS = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost:8080/movies/v1/movie_infos")).build();
+
+    VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+    AtomicInteger exchanges = new AtomicInteger();
+    ExchangeFunction upstream = request -> Mono.fromCallable(() -> {
+        exchanges.incrementAndGet();
+        return ClientResponse.create(HttpStatus.OK).build();
+    });
+
+    @AfterEach
+    void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Test
+    void filter_delaysRequestsOverTheBurstOnATimer() {
+        RateLimitingFilter filter = new RateLimitingFilter(RateLimit.of(10, 2), scheduler); // one token every 100ms
+
+        filter.filter(REVIEWS, upstream).subscribe();
+        filter.filter(REVIEWS, upstream).subscribe();
+        filter.filter(REVIEWS, upstream).subscribe();
+        assertEquals(2, exchanges.get());
+
+        scheduler.advanceTimeBy(Duration.ofMillis(99));
+        assertEquals(2, exchanges.get());
+        scheduler.advanceTimeBy(Duration.ofMillis(1));
+        assertEquals(3, exchanges.get());
+        assertEquals(1, filter.getDelayedCount());
+    }
+
+    @Test
+    void filter_failFastRejectsInsteadOfWaiting() {
+        RateLimit rateLimit = RateLimit.of(10, 1).toBuilder()
+                .failFast(true)
+                .build();
+        RateLimitingFilter filter = new RateLimitingFilter(rateLimit, scheduler);
+
+        StepVerifier.create(filter.filter(REVIEWS, upstream))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(filter.filter(REVIEWS, upstream))
+                .expectError(RateLimitExceededException.class)
+                .verify();
+        assertEquals(1, exchanges.get());
+        assertEquals(1, filter.getRejectedCount());
+    }
+
+    @Test
+    void filter_limitsEveryEndpointSeparately() {
+        RateLimitingFilter filter = new RateLimitingFilter(RateLimit.of(10, 1), scheduler);
+
+        filter.filter(REVIEWS, upstream).subscribe();
+        filter.filter(REVIEWS, upstream).subscribe(); // waits for the reviews bucket
+        filter.filter(MOVIE_INFOS, upstream).subscribe();
+
+        assertEquals(2, exchanges.get());
+        assertEquals(1, filter.getDelayedCount());
+    }
+
+    @Test
+    void filter_keysOnTheTemplateUnderTheBasePath() {
+        RateLimitingFilter filter = new RateLimitingFilter(RateLimit.of(10, 1), scheduler);
+
+        filter.filter(movieInfo("/movies", 1), upstream).subscribe();
+        filter.filter(movieInfo("/movies", 2), upstream).subscribe(); // same template, waits for the bucket
+        filter.filter(movieInfo("/archive", 1), upstream).subscribe(); // another client on the same host
+
+        assertEquals(2, exchanges.get());
+        assertEquals(1, filter.getDelayedCount());
+    }
+
+    @Test
+    void rateLimit_rejectsABadRateWhenBuilt() {
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.of(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> RateLimit.builder().permitsPerSecond(10).burst(0).build());
+        assertEquals(1, RateLimit.builder().permitsPerSecond(10).build().getBurst());
+    }
+
+    @Test
+    void filter_cancelledWaitGivesItsTokenBack() {
+        RateLimitingFilter filter = new RateLimitingFilter(RateLimit.of(10, 1), scheduler);
+
+        filter.filter(REVIEWS, upstream).subscribe();
+        Disposable waiting = filter.filter(REVIEWS, upstream).subscribe(); // due at 100ms
+        waiting.dispose();
+        filter.filter(REVIEWS, upstream).subscribe(); // takes the returned slot
+
+        scheduler.advanceTimeBy(Duration.ofMillis(100));
+        assertEquals(2, exchanges.get());
+    }
+
+    private static ClientRequest movieInfo(String basePath, long id) {
+        return ClientRequest.create(HttpMethod.GET, URI.create("http://localhost:8080" + basePath + "/v1/movie_infos/" + id))
+                .attribute(WebClient.class.getName() + ".uriTemplate", "/v1/movie_infos/{id}")
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.learnreactiveprogramming.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ReactiveCacheTest {
+
+    AtomicLong now = new AtomicLong();
+    AtomicInteger loads = new AtomicInteger();
+
+    ReactiveCache<Long, String> cache = new ReactiveCache<>(Duration.ofSeconds(10), 2, now::get);
+
+    @Test
+    void get_loadsOnceAndServesFromCache() {
+        assertEquals(0.0, cache.stats().hitRatio()); // before any traffic
+
+        StepVerifier.create(cache.get(1L, this::load))
+                .expectNext("movie-1")
+                .verifyComplete();
+        StepVerifier.create(cache.get(1L, this::load))
+                .expectNext("movie-1")
+                .verifyComplete();
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.stats().getHitCount());
+        assertEquals(1, cache.stats().getMissCount());
+        assertEquals(0.5, cache.stats().hitRatio());
+    }
+
+    @Test
+    void get_reloadsAfterTtl() {
+        cache.get(1L, this::load).block();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        cache.get(1L, this::load).block();
+
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.stats().getExpirationCount());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsed() {
+        cache.put(1L, "movie-1");
+        cache.put(2L, "movie-2");
+        cache.getIfPresent(1L);
+        cache.put(3L, "movie-3");
+
+        assertNull(cache.getIfPresent(2L));
+        assertEquals("movie-1", cache.getIfPresent(1L));
+        assertEquals(1, cache.stats().getEvictionCount());
+        assertEquals(2, cache.stats().getSize());
+    }
+
+    @Test
+    void get_doesNotCacheErrors() {
+        StepVerifier.create(cache.get(1L, id -> Mono.error(new IllegalStateException("Movie info service is down"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        StepVerifier.create(cache.get(1L, this::load))
+                .expectNext("movie-1")
+                .verifyComplete();
+    }
+
+    private Mono<String> load(Long id) {
+        return Mono.fromCallable(() -> {
+            loads.incrementAndGet();
+            return "movie-" + id;
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.learnreactiveprogramming.util;
+
+import com.learnreactiveprogramming.domain.Review;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReviewStatsCollectorTest {
+
+    @Test
+    void collect_largeReviewFlux() {
+        List<Double> ratings = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            ratings.add(i / 1000.0); // uniform between 0 and 10
+        }
+        Collections.shuffle(ratings, new Random(42));
+        Flux<Review> reviews = Flux.fromIterable(ratings)
+                .map(rating -> new Review(1L, 1L, "Awesome Movie", rating));
+
+        StepVerifier.create(ReviewStatsCollector.collect(reviews))
+                .assertNext(reviewStats -> {
+                    assertEquals(10_000, reviewStats.getCount());
+                    assertEquals(5.0005, reviewStats.getMean(), 0.0001);
+                    assertEquals(0.001, reviewStats.getMin());
+                    assertEquals(10.0, reviewStats.getMax());
+                    assertEquals(5.0, reviewStats.getP50(), 0.2);
+                    assertEquals(9.0, reviewStats.getP90(), 0.2);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void collect_fewReviewsWithoutRating() {
+        Flux<Review> reviews = Flux.just(new Review(1L, 1L, "Awesome Movie", 8.0),
+                new Review(2L, 1L, "No rating", null),
+                new Review(3L, 1L, "Excellent Movie", 9.0));
+
+        StepVerifier.create(ReviewStatsCollector.collect(reviews))
+                .assertNext(reviewStats -> {
+                    assertEquals(3, reviewStats.getCount());
+                    assertEquals(2, reviewStats.getRatedCount());
+                    assertEquals(8.5, reviewStats.getMean());
+                    assertTrue(reviewStats.getP50() == 8.0 || reviewStats.getP50() == 9.0);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void collect_noReviews() {
+        StepVerifier.create(ReviewStatsCollector.collect(Flux.empty()))
+                .assertNext(reviewStats -> {
+                    assertEquals(0, reviewStats.getCount());
+                    assertTrue(Double.isNaN(reviewStats.getMean()));
+                })
+                .verifyComplete();
+    }
+}
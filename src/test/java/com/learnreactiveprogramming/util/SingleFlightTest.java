@@ -0,0 +1,73 @@
+package com.learnreactiveprogramming.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+    AtomicInteger lookups = new AtomicInteger();
+
+    Mono<String> lookup(Long id) {
+        return singleFlight.execute(id, () -> Mono.fromCallable(() -> "movie-" + id + "-" + lookups.incrementAndGet())
+                .delayElement(Duration.ofMillis(100)));
+    }
+
+    @Test
+    void execute_concurrentCallsShareOneLookup() {
+        Flux<String> movies = Flux.range(0, 10)
+                .flatMap(i -> lookup(1L));
+
+        StepVerifier.create(movies)
+                .expectNext("movie-1-1", "movie-1-1", "movie-1-1", "movie-1-1", "movie-1-1",
+                        "movie-1-1", "movie-1-1", "movie-1-1", "movie-1-1", "movie-1-1")
+                .verifyComplete();
+
+        SingleFlightStats stats = singleFlight.stats();
+        assertEquals(10, stats.getCallCount());
+        assertEquals(1, stats.getExecutionCount());
+        assertEquals(0.9, stats.coalescingRatio(), 0.0001);
+    }
+
+    @Test
+    void execute_differentKeysRunSeparately() {
+        StepVerifier.create(Flux.merge(lookup(1L), lookup(2L)).collectList())
+                .assertNext(movies -> assertEquals(2, movies.stream().distinct().count()))
+                .verifyComplete();
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void execute_refetchesOnceTheFlightCompleted() {
+        StepVerifier.create(lookup(1L))
+                .expectNext("movie-1-1")
+                .verifyComplete();
+        StepVerifier.create(lookup(1L))
+                .expectNext("movie-1-2")
+                .verifyComplete();
+
+        assertEquals(0, singleFlight.stats().getInFlightCount());
+    }
+
+    @Test
+    void execute_sharesErrorsAndRetriesAfterwards() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> failingLookup = singleFlight.execute(1L, () -> Mono.delay(Duration.ofMillis(50))
+                .then(Mono.error(new IllegalStateException("Movie info service is down #" + attempts.incrementAndGet()))));
+
+        StepVerifier.create(Flux.merge(failingLookup, failingLookup))
+                .expectErrorMessage("Movie info service is down #1")
+                .verify();
+        StepVerifier.create(failingLookup)
+                .expectErrorMessage("Movie info service is down #2")
+                .verify();
+    }
+}